@@ -3,6 +3,10 @@ plugins {
     alias(libs.plugins.kotlin.android)
 }
 
+// API the sample talks to; -Pgurutvapay.apiBaseUrl=http://10.0.2.2:8080 for the mock server
+// (./gradlew :test-fixtures:run) from an emulator
+val apiBaseUrl = (findProperty("gurutvapay.apiBaseUrl") as String?) ?: "https://api.gurutvapay.com/live"
+
 android {
     namespace = "com.gurutva.gurutvapay"
     compileSdk = 35
@@ -18,6 +22,8 @@ android {
         vectorDrawables {
             useSupportLibrary = true
         }
+        buildConfigField("String", "GURUTVAPAY_BASE_URL", "\"$apiBaseUrl\"")
+        manifestPlaceholders["usesCleartextTraffic"] = apiBaseUrl.startsWith("http://")
     }
 
     buildTypes {
@@ -38,6 +44,7 @@ android {
     }
     buildFeatures {
         compose = true
+        buildConfig = true
     }
     composeOptions {
         kotlinCompilerExtensionVersion = "1.5.1"
@@ -0,0 +1,125 @@
+package com.gurutva.gurutvapay;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.gurutva.gurutvapay_sdk.TransactionHistory;
+import com.gurutva.gurutvapay_sdk.TransactionRecord;
+
+/**
+ * Server-side order history, shown below the local orders. Rows are read from the paged
+ * {@link TransactionHistory} as they are bound; a row whose page is not in memory shows a
+ * placeholder until the page arrives. After a failed page, loading resumes when a placeholder
+ * or the last row is bound again, i.e. when the user scrolls.
+ */
+public class HistoryAdapter extends RecyclerView.Adapter<TransactionsAdapter.Holder>
+        implements TransactionHistory.Listener {
+    private static final String TAG = "HistoryAdapter";
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final TransactionsAdapter.Callbacks cb;
+    private volatile TransactionHistory history;
+    // UI thread; catches up with history.size() as page notifications are delivered
+    private int count;
+    // UI thread; a page failed and history stopped loading until retry()
+    private boolean loadFailed;
+
+    public HistoryAdapter(TransactionsAdapter.Callbacks cb) {
+        this.cb = cb;
+        // history positions never move: pages are only appended
+        setHasStableIds(true);
+    }
+
+    /** Start showing history; the first page is requested right away. */
+    public void attach(TransactionHistory history) {
+        this.history = history;
+        history.loadMore();
+    }
+
+    /** Show a status looked up for a history row; any thread. */
+    public void updateStatus(String merchantOrderId, String status, String orderId, String transactionId) {
+        final TransactionHistory h = history;
+        if (h == null) return;
+        final int position = h.updateStatus(merchantOrderId, status, orderId, transactionId);
+        if (position < 0) return;
+        mainHandler.post(() -> {
+            if (position < count) notifyItemChanged(position);
+        });
+    }
+
+    @NonNull
+    @Override
+    public TransactionsAdapter.Holder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_transaction, parent, false);
+        final TransactionsAdapter.Holder h = new TransactionsAdapter.Holder(v);
+        h.btnCheck.setOnClickListener(x -> {
+            TransactionRecord r = recordAt(h.getBindingAdapterPosition());
+            if (r != null) cb.onCheckStatus(r.merchantOrderId);
+        });
+        h.btnDetails.setOnClickListener(x -> {
+            TransactionRecord r = recordAt(h.getBindingAdapterPosition());
+            if (r != null) cb.onDetails(r.merchantOrderId);
+        });
+        return h;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TransactionsAdapter.Holder holder, int position) {
+        // reading the position also prefetches the next page near the end
+        TransactionRecord r = history.get(position);
+        if (loadFailed && (r == null || position == count - 1)) {
+            loadFailed = false;
+            history.retry();
+            // loads the evicted page, if that is what's missing
+            if (r == null) r = history.get(position);
+        }
+        if (r == null) {
+            holder.tvTitle.setText("Loading…");
+            holder.tvSubtitle.setText("");
+        } else {
+            TransactionsAdapter.bindTitle(holder, r);
+            TransactionsAdapter.bindStatus(holder, r);
+        }
+        holder.btnCheck.setEnabled(r != null);
+        holder.btnDetails.setEnabled(r != null);
+    }
+
+    @Override
+    public int getItemCount() { return count; }
+
+    @Override
+    public long getItemId(int position) { return position; }
+
+    private TransactionRecord recordAt(int position) {
+        if (history == null || position == RecyclerView.NO_POSITION || position >= count) return null;
+        return history.get(position);
+    }
+
+    // loader thread
+    @Override
+    public void onPageLoaded(int fromPosition, int itemCount, int totalCount, boolean appended) {
+        mainHandler.post(() -> {
+            if (appended) {
+                final int old = count;
+                count = totalCount;
+                notifyItemRangeInserted(old, totalCount - old);
+            } else {
+                notifyItemRangeChanged(fromPosition, itemCount);
+            }
+        });
+    }
+
+    // loader thread
+    @Override
+    public void onLoadError(String message) {
+        Log.w(TAG, "history page failed: " + message);
+        mainHandler.post(() -> loadFailed = true);
+    }
+}
@@ -3,45 +3,53 @@ package com.gurutva.gurutvapay;
 import android.app.Activity;
 import android.content.Intent;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.ConcatAdapter;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.gurutva.gurutvapay_sdk.GurutvaPayActivity; // SDK Activity - adjust if package differs
-
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLEncoder;
-import java.util.ArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-public class MainActivity extends AppCompatActivity implements TransactionsAdapter.Callbacks {
+import com.gurutva.gurutvapay_sdk.GurutvaPay;
+import com.gurutva.gurutvapay_sdk.OrderPayload;
+import com.gurutva.gurutvapay_sdk.PaymentSession;
+import com.gurutva.gurutvapay_sdk.StatusTracker;
+import com.gurutva.gurutvapay_sdk.TransactionHistory;
+import com.gurutva.gurutvapay_sdk.TransactionRecord;
+import com.gurutva.gurutvapay_sdk.TransactionRepository;
+import com.gurutva.gurutvapay_sdk.TransactionStatus;
+import com.gurutva.gurutvapay_sdk.TransactionStatusClient;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MainActivity extends AppCompatActivity
+        implements TransactionsAdapter.Callbacks, StatusTracker.Listener, TransactionRepository.Listener {
+    private static final String TAG = "MainActivity";
     private static final int REQ_PAYMENT = 1001;
 
     private EditText etOrderId, etAmount, etName, etEmail, etPhone, etAddress1, etAddress2;
     private Button btnCreateOpen;
     private RecyclerView rvTxns;
 
-    private final ArrayList<TransactionItem> txns = new ArrayList<>();
+    private final TransactionRepository txns = new TransactionRepository();
     private TransactionsAdapter adapter;
+    private HistoryAdapter historyAdapter;
+    private TransactionHistory history;
 
     // API key, change as needed
     private String liveSaltKey1 = "live_234f*************";
-    private final String envBaseUrl = "https://api.gurutvapay.com/live";
+    private final String envBaseUrl = BuildConfig.GURUTVAPAY_BASE_URL;
+
+    private TransactionStatusClient statusClient;
+    private StatusTracker statusTracker;
+    private String lastLaunchedOrderId;
 
-    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final AtomicBoolean listRefreshPosted = new AtomicBoolean();
+    private boolean scrollToTopOnRefresh; // UI thread only
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -58,9 +66,33 @@ public class MainActivity extends AppCompatActivity implements TransactionsAdapt
         btnCreateOpen = findViewById(R.id.btnCreateOpen);
         rvTxns = findViewById(R.id.rvTxns);
 
-        adapter = new TransactionsAdapter(txns, this);
+        adapter = new TransactionsAdapter(this);
+        historyAdapter = new HistoryAdapter(this);
         rvTxns.setLayoutManager(new LinearLayoutManager(this));
-        rvTxns.setAdapter(adapter);
+        // this session's orders first, then the server-side history, paged in as it scrolls
+        ConcatAdapter.Config config = new ConcatAdapter.Config.Builder()
+                .setStableIdMode(ConcatAdapter.Config.StableIdMode.ISOLATED_STABLE_IDS)
+                .build();
+        rvTxns.setAdapter(new ConcatAdapter(config, adapter, historyAdapter));
+
+        statusClient = GurutvaPay.statusClient(this, liveSaltKey1, envBaseUrl);
+        statusTracker = new StatusTracker(statusClient, this);
+
+        txns.addListener(this);
+        history = GurutvaPay.transactionHistory(this, liveSaltKey1, envBaseUrl, historyAdapter);
+        historyAdapter.attach(history);
+
+        // restore orders saved before a restart and resume polling the unfinished ones
+        GurutvaPay.openTransactionJournalAsync(this).whenComplete((journal, e) -> {
+            if (e != null) {
+                Log.e(TAG, "cannot open transaction journal", e);
+                return;
+            }
+            txns.attach(journal);
+            for (TransactionRecord r : txns.snapshot()) {
+                if (!r.isTerminal()) statusTracker.track(r.merchantOrderId);
+            }
+        });
 
         btnCreateOpen.setOnClickListener(v -> createOrderAndOpenSdk());
     }
@@ -75,115 +107,85 @@ public class MainActivity extends AppCompatActivity implements TransactionsAdapt
             return;
         }
 
-        TransactionItem txn = new TransactionItem(orderId, amount);
-        txns.add(0, txn);
-        adapter.notifyItemInserted(0);
-        rvTxns.scrollToPosition(0);
-
-        // Build order payload JSON
-        try {
-            JSONObject payload = new JSONObject();
-            payload.put("amount", amount);
-            payload.put("merchantOrderId", orderId);
-            payload.put("channel", "android");
-            payload.put("purpose", "Integration Test Payment");
-
-            JSONObject cust = new JSONObject();
-            cust.put("buyer_name", etName.getText().toString());
-            cust.put("email", etEmail.getText().toString());
-            cust.put("phone", etPhone.getText().toString());
-            cust.put("address1", etAddress1.getText().toString());
-            cust.put("address2", etAddress2.getText().toString());
-            payload.put("customer", cust);
-
-            // Start SDK activity (GurutvaPayActivity) with extras
-            Intent i = new Intent(this, GurutvaPayActivity.class);
-            i.putExtra("EXTRA_LIVE_SALT_KEY1", liveSaltKey1);
-            i.putExtra("EXTRA_ORDER_PAYLOAD_JSON", payload.toString());
-            i.putExtra("EXTRA_ENV_BASE_URL", envBaseUrl);
-            startActivityForResult(i, REQ_PAYMENT);
-        } catch (Exception e) {
-            e.printStackTrace();
+        scrollToTopOnRefresh = true;
+        txns.put(TransactionRecord.create(orderId, amount));
+
+        OrderPayload order = OrderPayload.builder(orderId, amount)
+                .purpose("Integration Test Payment")
+                .customer(etName.getText().toString(), etEmail.getText().toString(), etPhone.getText().toString(),
+                        etAddress1.getText().toString(), etAddress2.getText().toString())
+                .build();
+
+        // Start the payment session right away, then open the SDK activity on it
+        PaymentSession session = GurutvaPay.prepare(this, liveSaltKey1, order,
+                envBaseUrl, GurutvaPay.DEFAULT_SESSION_TTL_MS);
+        lastLaunchedOrderId = orderId;
+        btnCreateOpen.setEnabled(false);
+        // the order is on disk before we switch to the payment page / UPI app; the session
+        // resolves meanwhile
+        txns.syncAsync().whenComplete((ignored, e) -> {
+            if (e != null) Log.w(TAG, "journal sync failed", e);
+            runOnUiThread(() -> openPayment(session));
+        });
+    }
+
+    private void openPayment(PaymentSession session) {
+        btnCreateOpen.setEnabled(true);
+        if (isFinishing() || isDestroyed()) {
+            GurutvaPay.discard(session);
+            return;
         }
+        startActivityForResult(GurutvaPay.createPaymentIntent(this, session), REQ_PAYMENT);
     }
 
     // Called when Check status clicked in adapter
     @Override
-    public void onCheckStatus(int position) {
-        TransactionItem t = txns.get(position);
-        // run network call
-        executor.submit(() -> {
-            final String result = checkTransactionStatusSync(t.merchantOrderId);
-            runOnUiThread(() -> {
-                // result is JSON string or error message
-                try {
-                    JSONObject j = new JSONObject(result);
-                    if (j.has("status")) {
-                        t.status = j.optString("status");
-                        t.orderId = j.optString("orderId", t.orderId);
-                        t.transactionId = j.optString("transactionId", t.transactionId);
-                    } else if (j.has("error")) {
-                        // keep error message as status
-                        t.status = "error: " + j.optString("error");
-                    } else {
-                        t.status = "unknown";
-                    }
-                } catch (Exception e) {
-                    t.status = "error";
-                }
-                adapter.notifyItemChanged(position);
-            });
+    public void onCheckStatus(String merchantOrderId) {
+        // lookups from several rows within a short window go out as one batch
+        statusClient.fetch(merchantOrderId).thenAccept(st -> {
+            final String status;
+            String orderId = null, txnId = null;
+            if (st == null) {
+                status = "unknown";
+            } else if (st.isError()) {
+                // keep error message as status
+                status = "error: " + st.error;
+            } else {
+                status = st.status;
+                orderId = st.orderId;
+                txnId = st.transactionId;
+            }
+            // the row may be one of this session's orders, a history row, or both
+            txns.updateStatus(merchantOrderId, status, orderId, txnId);
+            historyAdapter.updateStatus(merchantOrderId, status, orderId, txnId);
         });
     }
 
     @Override
-    public void onDetails(int position) {
+    public void onDetails(String merchantOrderId) {
         // optional: show more details or navigate to detail screen
     }
 
-    private String checkTransactionStatusSync(String merchantOrderId) {
-        HttpURLConnection conn = null;
-        try {
-            String base = envBaseUrl;
-            String q = "?merchantOrderId=" + URLEncoder.encode(merchantOrderId, "UTF-8");
-            URL url = new URL(base + "/transaction-status-android" + q);
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST"); // as Dart used POST with query param
-            conn.setConnectTimeout(10_000);
-            conn.setReadTimeout(10_000);
-            conn.setDoOutput(true);
-            conn.setRequestProperty("Live-Salt-Key1", liveSaltKey1);
-            conn.setRequestProperty("appId", getPackageName());
-            // no body required (server might accept empty body with query param)
-            conn.setFixedLengthStreamingMode(0);
-            conn.connect();
-
-            int code = conn.getResponseCode();
-            InputStream is = (code >= 200 && code < 300) ? conn.getInputStream() : conn.getErrorStream();
-            StringBuilder sb = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
-                String line;
-                while ((line = br.readLine()) != null) sb.append(line).append('\n');
-            }
-            String body = sb.toString().trim();
-            if (code >= 200 && code < 300) {
-                return body;
-            } else {
-                JSONObject err = new JSONObject();
-                err.put("error", "HTTP " + code + " - " + body);
-                return err.toString();
-            }
-        } catch (Exception e) {
-            try {
-                JSONObject err = new JSONObject();
-                err.put("error", e.getMessage());
-                return err.toString();
-            } catch (Exception ex) {
-                return "{\"error\":\"" + e.getMessage() + "\"}";
-            }
-        } finally {
-            if (conn != null) conn.disconnect();
-        }
+    // repository changes can come from any thread; a burst of them becomes one snapshot,
+    // which the adapter diffs off the UI thread
+    @Override
+    public void onRecordChanged(TransactionRecord previous, TransactionRecord current) {
+        scheduleListRefresh();
+    }
+
+    @Override
+    public void onRecordsLoaded(int count) {
+        scheduleListRefresh();
+    }
+
+    private void scheduleListRefresh() {
+        if (!listRefreshPosted.compareAndSet(false, true)) return;
+        rvTxns.post(() -> {
+            listRefreshPosted.set(false);
+            final boolean scroll = scrollToTopOnRefresh;
+            scrollToTopOnRefresh = false;
+            adapter.submit(txns.snapshot(), scroll ? () -> rvTxns.scrollToPosition(0) : null);
+        });
     }
 
     @Override
@@ -196,55 +198,39 @@ public class MainActivity extends AppCompatActivity implements TransactionsAdapt
             String mo = data.getStringExtra("merchantOrderId");
             String orderId = data.getStringExtra("orderId");
 
-            // update local txn by merchantOrderId (mo)
-            for (int i = 0; i < txns.size(); i++) {
-                TransactionItem t = txns.get(i);
-                if (t.merchantOrderId.equals(mo)) {
-                    t.status = "success";
-                    if (txnId != null) t.transactionId = txnId;
-                    if (orderId != null) t.orderId = orderId;
-                    adapter.notifyItemChanged(i);
-                    // optionally confirm with server
-                    confirmServerStatus(mo, i);
-                    return;
-                }
-            }
-            // fallback: update first txn
-            if (!txns.isEmpty()) {
-                TransactionItem t = txns.get(0);
-                t.status = "success";
-                if (txnId != null) t.transactionId = txnId;
-                adapter.notifyItemChanged(0);
-            }
+            // match by merchantOrderId, else by the gateway's ids, else the order we launched
+            TransactionRecord t = mo != null ? txns.get(mo) : null;
+            if (t == null && txnId != null) t = txns.findByTransactionId(txnId);
+            if (t == null && orderId != null) t = txns.findByOrderId(orderId);
+            if (t == null && lastLaunchedOrderId != null) t = txns.get(lastLaunchedOrderId);
+            if (t == null) return;
+            txns.updateStatus(t.merchantOrderId, "success", orderId, txnId);
+            // confirm with server; stops on the first terminal status
+            statusTracker.track(t.merchantOrderId);
         } else {
             String err = (data != null) ? data.getStringExtra("error") : "cancelled";
-            // optionally show toast
+            // the user may still complete the payment in the UPI app; keep polling the order
+            if (lastLaunchedOrderId != null) statusTracker.track(lastLaunchedOrderId);
         }
     }
 
-    private void confirmServerStatus(String merchantOrderId, int position) {
-        executor.submit(() -> {
-            String result = checkTransactionStatusSync(merchantOrderId);
-            runOnUiThread(() -> {
-                try {
-                    JSONObject j = new JSONObject(result);
-                    TransactionItem t = txns.get(position);
-                    if (j.has("status")) {
-                        t.status = j.optString("status");
-                        t.orderId = j.optString("orderId", t.orderId);
-                        t.transactionId = j.optString("transactionId", t.transactionId);
-                    }
-                    adapter.notifyItemChanged(position);
-                } catch (Exception e) {
-                    // ignore
-                }
-            });
-        });
+    @Override
+    public void onStatusChanged(String merchantOrderId, TransactionStatus status) {
+        txns.updateStatus(merchantOrderId, status.status, status.orderId, status.transactionId);
+    }
+
+    @Override
+    public void onTrackingStopped(String merchantOrderId, TransactionStatus last) {
+        // nothing to do; the row already shows the last status
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        executor.shutdownNow();
+        txns.removeListener(this);
+        statusTracker.shutdown();
+        statusClient.shutdown();
+        history.close();
+        // queued journal writes still run; the journal itself stays open for the process
     }
 }
@@ -7,49 +7,138 @@ import android.widget.Button;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.gurutva.gurutvapay_sdk.TransactionRecord;
+
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Rows for repository snapshots. Snapshots are diffed on a background thread; a row whose
+ * status or transaction id changed is rebound with a payload that only touches the subtitle.
+ */
 public class TransactionsAdapter extends RecyclerView.Adapter<TransactionsAdapter.Holder> {
     public interface Callbacks {
-        void onCheckStatus(int position);
-        void onDetails(int position);
+        void onCheckStatus(String merchantOrderId);
+        void onDetails(String merchantOrderId);
     }
 
-    private final List<TransactionItem> items;
+    // only the subtitle (status / txn) changed
+    private static final Object PAYLOAD_STATUS = new Object();
+
+    private static final DiffUtil.ItemCallback<TransactionRecord> DIFF = new DiffUtil.ItemCallback<TransactionRecord>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TransactionRecord a, @NonNull TransactionRecord b) {
+            return a.merchantOrderId.equals(b.merchantOrderId);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TransactionRecord a, @NonNull TransactionRecord b) {
+            // only what the row shows
+            return a.amount == b.amount && eq(a.status, b.status) && eq(a.transactionId, b.transactionId);
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull TransactionRecord a, @NonNull TransactionRecord b) {
+            return a.amount == b.amount ? PAYLOAD_STATUS : null;
+        }
+    };
+
+    private final AsyncListDiffer<TransactionRecord> differ = new AsyncListDiffer<>(this, DIFF);
     private final Callbacks cb;
+    // merchantOrderId -> stable row id; main thread only
+    private final Map<String, Long> ids = new HashMap<>();
 
-    public TransactionsAdapter(List<TransactionItem> items, Callbacks cb) {
-        this.items = items;
+    public TransactionsAdapter(Callbacks cb) {
         this.cb = cb;
+        setHasStableIds(true);
+    }
+
+    /**
+     * Show a new repository snapshot (newest first); must not be mutated afterwards.
+     *
+     * @param onCommitted optional, runs once the rows reflect the snapshot
+     */
+    public void submit(List<TransactionRecord> snapshot, Runnable onCommitted) {
+        differ.submitList(snapshot, onCommitted);
     }
 
     @NonNull
     @Override
     public Holder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_transaction, parent, false);
-        return new Holder(v);
+        final Holder h = new Holder(v);
+        h.btnCheck.setOnClickListener(x -> {
+            String mo = orderAt(h.getBindingAdapterPosition());
+            if (mo != null) cb.onCheckStatus(mo);
+        });
+        h.btnDetails.setOnClickListener(x -> {
+            String mo = orderAt(h.getBindingAdapterPosition());
+            if (mo != null) cb.onDetails(mo);
+        });
+        return h;
     }
 
     @Override
     public void onBindViewHolder(@NonNull Holder holder, int position) {
-        TransactionItem t = items.get(position);
+        TransactionRecord t = differ.getCurrentList().get(position);
+        bindTitle(holder, t);
+        bindStatus(holder, t);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull Holder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+        } else {
+            bindStatus(holder, differ.getCurrentList().get(position));
+        }
+    }
+
+    static void bindTitle(Holder holder, TransactionRecord t) {
         holder.tvTitle.setText(t.merchantOrderId + " — ₹" + t.amount);
-        String sub = "Status: " + t.status;
-        if (t.transactionId != null) sub += "\nTxn: " + t.transactionId;
-        holder.tvSubtitle.setText(sub);
+    }
 
-        holder.btnCheck.setOnClickListener(v -> cb.onCheckStatus(position));
-        holder.btnDetails.setOnClickListener(v -> cb.onDetails(position));
+    static void bindStatus(Holder holder, TransactionRecord t) {
+        final StringBuilder sub = holder.subtitle;
+        sub.setLength(0);
+        sub.append("Status: ").append(t.status);
+        if (t.transactionId != null) sub.append("\nTxn: ").append(t.transactionId);
+        holder.tvSubtitle.setText(sub.toString());
     }
 
     @Override
-    public int getItemCount() { return items.size(); }
+    public int getItemCount() { return differ.getCurrentList().size(); }
+
+    @Override
+    public long getItemId(int position) {
+        final String mo = differ.getCurrentList().get(position).merchantOrderId;
+        Long id = ids.get(mo);
+        if (id == null) {
+            id = (long) ids.size();
+            ids.put(mo, id);
+        }
+        return id;
+    }
+
+    private String orderAt(int position) {
+        final List<TransactionRecord> list = differ.getCurrentList();
+        if (position == RecyclerView.NO_POSITION || position >= list.size()) return null;
+        return list.get(position).merchantOrderId;
+    }
+
+    private static boolean eq(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
 
     static class Holder extends RecyclerView.ViewHolder {
         TextView tvTitle, tvSubtitle;
         Button btnCheck, btnDetails;
+        final StringBuilder subtitle = new StringBuilder(48);
         Holder(@NonNull View itemView) {
             super(itemView);
             tvTitle = itemView.findViewById(R.id.tvTitle);
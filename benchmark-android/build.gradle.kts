@@ -0,0 +1,40 @@
+plugins {
+    id("com.android.library")
+    alias(libs.plugins.androidx.benchmark)
+}
+
+// On-device (ART) runs of the hot paths benchmarked on the JVM in :benchmark, on the same inputs.
+// ./gradlew :benchmark-android:connectedReleaseAndroidTest with a device attached; results are
+// written to build/outputs/connected_android_test_additional_output.
+android {
+    namespace = "com.gurutva.gurutvapay_sdk.benchmark"
+    compileSdk = 34
+
+    defaultConfig {
+        minSdk = 24
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+    }
+
+    // benchmarks must not run debuggable, unminified code
+    testBuildType = "release"
+    buildTypes {
+        release {
+            isDefault = true
+            isMinifyEnabled = false
+        }
+    }
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_1_8
+        targetCompatibility = JavaVersion.VERSION_1_8
+    }
+    sourceSets {
+        getByName("androidTest").java.srcDir("../benchmark/src/corpus/java")
+    }
+}
+
+dependencies {
+    androidTestImplementation(project(":gurutvapay-sdk"))
+    androidTestImplementation(libs.androidx.benchmark.junit4)
+    androidTestImplementation(libs.androidx.junit)
+    androidTestImplementation(libs.junit)
+}
@@ -0,0 +1,95 @@
+package com.gurutva.gurutvapay_sdk;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The :benchmark JMH cases on ART, where interpreter / JIT / AOT behaviour and allocation cost
+ * differ from the JVM. Run on the low-end reference device before a release.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HotPathBenchmark {
+
+    @Rule
+    public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private int outcomes;
+    private final BridgeMessageDispatcher dispatcher = new BridgeMessageDispatcher(new BridgeMessageDispatcher.Sink() {
+        @Override public void onSuccess(String transactionId, String merchantOrderId, String orderId) { outcomes++; }
+        @Override public void onFailure(String error) { outcomes++; }
+        @Override public void onPending() { outcomes++; }
+        @Override public void onIntent(String url, String appHint) { outcomes++; }
+    });
+
+    /** Every message kind once per iteration, console and bridge: the per-message mix of a checkout. */
+    @Test
+    public void bridgeMessages() {
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 0; i < BenchmarkCorpus.CONSOLE.length; i++) {
+                dispatcher.dispatchConsoleMessage(BenchmarkCorpus.CONSOLE[i]);
+                dispatcher.dispatchBridgeMessage(BenchmarkCorpus.BRIDGE[i]);
+            }
+        }
+    }
+
+    @Test
+    public void bridgeChatter() {
+        final String chatter = BenchmarkCorpus.BRIDGE[BenchmarkCorpus.kind("json-chatter")];
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dispatcher.dispatchBridgeMessage(chatter);
+        }
+    }
+
+    @Test
+    public void schemeDetection() {
+        final UrlSchemeMatcher matcher = UrlSchemeMatcher.get();
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (String m : BenchmarkCorpus.CONSOLE) matcher.findFirst(m);
+            for (String link : BenchmarkCorpus.LINKS) matcher.matchPrefix(link);
+        }
+    }
+
+    @Test
+    public void initiateResponseGzip() throws Exception {
+        final byte[] body = BenchmarkCorpus.gzip(BenchmarkCorpus.utf8(BenchmarkCorpus.initiateResponse()));
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            GurutvaPayApi.readPaymentUrl(200, new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void batchStatusResponse() throws Exception {
+        final byte[] body = BenchmarkCorpus.utf8(BenchmarkCorpus.batchResponse(200));
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            GurutvaPayApi.readBatchResults(200, new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void orderPayloadWrite() throws Exception {
+        final OrderPayload order = BenchmarkCorpus.order(20);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            out.reset();
+            order.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+// JMH on the JVM for the SDK's Android-free hot paths. A JVM module cannot depend on an Android
+// library, so the SDK sources are compiled in here directly, minus the classes that use the
+// Android framework. A new Android-dependent class breaks this build until it is listed below.
+val androidSdkSources = listOf(
+    "CheckoutController.java", // through PaymentSessions
+    "ConnectionWarmer.java",
+    "GurutvaPay.java",
+    "GurutvaPayActivity.java",
+    "InitiateCall.java",
+    "LaunchPlanner.java", // through CheckoutController
+    "PaymentSessions.java", // through InitiateCall
+    "TransactionJournal.java",
+    "TransactionRepository.java", // through TransactionJournal
+    "UpiAppRegistry.java",
+    "WebViewPool.java",
+)
+
+sourceSets {
+    main {
+        java {
+            srcDir("../gurutvapay-sdk/src/main/java")
+            exclude(androidSdkSources.map { "com/gurutva/gurutvapay_sdk/$it" })
+        }
+    }
+    named("jmh") {
+        java.srcDir("src/corpus/java")
+    }
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+// ./gradlew :benchmark:jmh                       everything, results in build/results/jmh/results.json
+// ./gradlew :benchmark:jmh -Pjmh.includes=Bridge  one class
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    (findProperty("jmh.includes") as String?)?.let { includes.set(listOf(it)) }
+}
@@ -0,0 +1,103 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Inputs shared by the JVM (JMH) and on-device benchmarks, shaped like what a payment page and
+ * the API actually send. Keep both suites on the same data so their numbers stay comparable.
+ */
+final class BenchmarkCorpus {
+
+    /** Message kinds; the index into {@link #CONSOLE} and {@link #BRIDGE}. */
+    static final String[] KINDS = {"chatter", "json-chatter", "status", "upi", "intent"};
+
+    /** console.log text as the page prints it. */
+    static final String[] CONSOLE = {
+            "[checkout] render took 12ms, 3 widgets mounted",
+            "{\"event\":\"analytics\",\"screen\":\"payment\",\"ts\":1718000000000,\"props\":{\"variant\":\"b\",\"items\":[1,2,3]}}",
+            "{\"status\":\"SUCCESS\",\"merchantOrderId\":\"MO-20240611-0042\",\"transactionId\":\"T9F3A2\",\"orderId\":\"OD77\"}",
+            "redirecting to upi://pay?pa=merchant@bank&pn=Shop&am=100.00&cu=INR&tn=Order%20MO-42",
+            "opening Intent://pay#Intent;scheme=upi;package=com.phonepe.app;S.browser_fallback_url=https%3A%2F%2Fpay;end",
+    };
+
+    /** The same messages wrapped the way the injected script forwards them to AndroidBridge.onMessage. */
+    static final String[] BRIDGE = new String[CONSOLE.length];
+
+    static {
+        for (int i = 0; i < CONSOLE.length; i++) BRIDGE[i] = bridgeWrap(i == 2 ? "postMessage" : "log", CONSOLE[i]);
+    }
+
+    static int kind(String name) {
+        for (int i = 0; i < KINDS.length; i++) {
+            if (KINDS[i].equals(name)) return i;
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    /** Links as handed to the scheme matcher when the page navigates. */
+    static final String[] LINKS = {
+            "https://checkout.gurutvapay.com/pay/abc123?lang=en",
+            "upi://pay?pa=merchant@bank&pn=Shop&am=100.00&cu=INR",
+            "phonepe://pay?pa=merchant@bank&pn=Shop&am=100.00&cu=INR",
+            "intent://pay#Intent;scheme=upi;package=com.google.android.apps.nbu.paisa.user;end",
+    };
+
+    /** initiate-payment-android response with the usual extra fields around payment_url. */
+    static String initiateResponse() {
+        return "{\"status\":\"created\",\"merchantOrderId\":\"MO-20240611-0042\",\"amount\":49900,"
+                + "\"payment_url\":\"https://checkout.gurutvapay.com/pay/7f3a9c2e4b1d\","
+                + "\"expires_in\":900,\"meta\":{\"channel\":\"android\",\"methods\":[\"upi\",\"card\",\"netbanking\"]}}";
+    }
+
+    /** transaction-status-batch-android response for n orders. */
+    static String batchResponse(int n) {
+        final StringBuilder sb = new StringBuilder(n * 120 + 16).append("{\"results\":[");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"merchantOrderId\":\"MO-").append(i).append("\",\"status\":\"")
+                    .append(i % 3 == 0 ? "SUCCESS" : i % 3 == 1 ? "PENDING" : "FAILED")
+                    .append("\",\"orderId\":\"OD").append(i).append("\",\"amount\":").append(100 + i)
+                    .append(",\"updatedAt\":\"2024-06-11T10:15:30Z\"}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    /** A cart with items line items and a full customer block. */
+    static OrderPayload order(int items) {
+        final OrderPayload.Builder b = OrderPayload.builder("MO-20240611-0042", 49_900)
+                .purpose("Order from Shop")
+                .customer("Asha Rao", "asha@example.com", "9999999999", "12 MG Road, Bengaluru", "Karnataka 560001");
+        for (int i = 0; i < items; i++) b.addItem("Cotton T-shirt, size M, colour " + i, 1 + i % 3, 499 + i);
+        return b.put("udf1", "app-v2.3.1").build();
+    }
+
+    static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] gzip(byte[] plain) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(plain);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String bridgeWrap(String kind, String payload) {
+        final StringBuilder sb = new StringBuilder(payload.length() + 40)
+                .append("{\"kind\":\"").append(kind).append("\",\"payload\":\"");
+        for (int i = 0; i < payload.length(); i++) {
+            final char c = payload.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.append("\"}").toString();
+    }
+
+    private BenchmarkCorpus() {}
+}
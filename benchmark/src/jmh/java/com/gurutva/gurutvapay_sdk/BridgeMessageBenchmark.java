@@ -0,0 +1,56 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message cost of {@link BridgeMessageDispatcher}, the work done on the JavaBridge thread for
+ * every console line and AndroidBridge.onMessage call the payment page emits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BridgeMessageBenchmark {
+
+    @Param({"chatter", "json-chatter", "status", "upi", "intent"})
+    public String kind;
+
+    private String console;
+    private String bridge;
+    private BridgeMessageDispatcher dispatcher;
+    // outcomes land here so the dispatch cannot be optimized away
+    private int outcomes;
+
+    @Setup
+    public void setUp() {
+        final int k = BenchmarkCorpus.kind(kind);
+        console = BenchmarkCorpus.CONSOLE[k];
+        bridge = BenchmarkCorpus.BRIDGE[k];
+        dispatcher = new BridgeMessageDispatcher(new BridgeMessageDispatcher.Sink() {
+            @Override public void onSuccess(String transactionId, String merchantOrderId, String orderId) { outcomes++; }
+            @Override public void onFailure(String error) { outcomes++; }
+            @Override public void onPending() { outcomes++; }
+            @Override public void onIntent(String url, String appHint) { outcomes++; }
+        });
+    }
+
+    @Benchmark
+    public int consoleMessage() {
+        dispatcher.dispatchConsoleMessage(console);
+        return outcomes;
+    }
+
+    @Benchmark
+    public int bridgeMessage() {
+        dispatcher.dispatchBridgeMessage(bridge);
+        return outcomes;
+    }
+}
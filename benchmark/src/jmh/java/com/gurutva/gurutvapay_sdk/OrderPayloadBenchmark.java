@@ -0,0 +1,57 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializing the initiate request body: {@link OrderPayload} straight onto a stream (the path
+ * the transport takes), gzip included for large carts, and toJson for the Intent extra.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderPayloadBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int items;
+
+    private OrderPayload order;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkCorpus.order(items);
+    }
+
+    @Benchmark
+    public int writeTo() throws IOException {
+        out.reset();
+        order.writeTo(out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeToGzip() throws IOException {
+        out.reset();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out, 4096)) {
+            order.writeTo(gz);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public String toJson() {
+        return order.toJson();
+    }
+}
@@ -0,0 +1,73 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Response bodies from bytes to result, the way {@link HttpTransport} hands them to the readers
+ * in {@link GurutvaPayApi}: optional gunzip, UTF-8 decoding, pull parsing. No network.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseReadBenchmark {
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    /** Orders in the batch status response. */
+    @Param({"10", "200"})
+    public int batch;
+
+    private byte[] initiate;
+    private byte[] statuses;
+
+    @Setup
+    public void setUp() {
+        initiate = encode(BenchmarkCorpus.initiateResponse());
+        statuses = encode(BenchmarkCorpus.batchResponse(batch));
+    }
+
+    private byte[] encode(String body) {
+        final byte[] plain = BenchmarkCorpus.utf8(body);
+        return gzip ? BenchmarkCorpus.gzip(plain) : plain;
+    }
+
+    private Reader open(byte[] body) throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        if (gzip) in = new GZIPInputStream(in);
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String paymentUrl() throws Exception {
+        return GurutvaPayApi.readPaymentUrl(200, open(initiate));
+    }
+
+    @Benchmark
+    public Map<String, TransactionStatus> batchStatus() throws Exception {
+        return GurutvaPayApi.readBatchResults(200, open(statuses));
+    }
+
+    /** Non-2xx bodies are read as text, capped like the API's error messages. */
+    @Benchmark
+    public String errorText() throws Exception {
+        return HttpTransport.readText(open(statuses), 512);
+    }
+}
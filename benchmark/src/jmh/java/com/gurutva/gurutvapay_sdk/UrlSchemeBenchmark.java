@@ -0,0 +1,46 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UrlSchemeMatcher}: findFirst runs over every relevant page message, matchPrefix over
+ * every navigation the WebView reports.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UrlSchemeBenchmark {
+
+    @Param({"chatter", "json-chatter", "status", "upi", "intent"})
+    public String kind;
+
+    private final UrlSchemeMatcher matcher = UrlSchemeMatcher.get();
+    private String message;
+    private int link;
+
+    @Setup
+    public void setUp() {
+        message = BenchmarkCorpus.CONSOLE[BenchmarkCorpus.kind(kind)];
+    }
+
+    @Benchmark
+    public String findFirst() {
+        return matcher.findFirst(message);
+    }
+
+    /** Cycles through https / upi / wallet / intent links; reported per link. */
+    @Benchmark
+    public String matchPrefix() {
+        link = (link + 1) & 3;
+        return matcher.matchPrefix(BenchmarkCorpus.LINKS[link]);
+    }
+}
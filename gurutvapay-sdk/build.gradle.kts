@@ -31,6 +31,16 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+    testOptions {
+        // android.util.Log returns instead of throwing in JVM tests
+        unitTests.isReturnDefaultValues = true
+        unitTests.all {
+            // NetworkLoadTest size, e.g. -Pgurutvapay.load.checkouts=5000 -Pgurutvapay.load.concurrency=64
+            for (name in listOf("gurutvapay.load.checkouts", "gurutvapay.load.concurrency")) {
+                project.findProperty(name)?.let { value -> it.systemProperty(name, value) }
+            }
+        }
+    }
 }
 
 dependencies {
@@ -39,6 +49,7 @@ dependencies {
     implementation(libs.material)
     implementation(libs.firebase.inappmessaging)
     testImplementation(libs.junit)
+    testImplementation(project(":test-fixtures"))
     androidTestImplementation(libs.androidx.junit)
     androidTestImplementation(libs.androidx.espresso.core)
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single-consumer hand-off between the WebView's JavaBridge thread and the main thread.
+ *
+ * Producers (any thread) only append small event objects; one drain task on the consumer
+ * executor delivers them to the target {@link BridgeMessageDispatcher.Sink} in arrival order.
+ * The first success / failure closes the queue: events queued after it are discarded, so the
+ * activity can never finish twice.
+ */
+final class BridgeEventQueue implements BridgeMessageDispatcher.Sink {
+
+    private static final int SUCCESS = 0;
+    private static final int FAILURE = 1;
+    private static final int PENDING = 2;
+    private static final int INTENT = 3;
+    private static final String[] TYPE_NAMES = {"success", "failure", "pending", "intent"};
+
+    private static final class Event {
+        final int type;
+        final String a, b, c;
+        final long queuedAt = CheckoutTrace.begin();
+
+        Event(int type, String a, String b, String c) {
+            this.type = type;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+        }
+    }
+
+    private final Executor consumer;
+    private final BridgeMessageDispatcher.Sink target;
+    private final ConcurrentLinkedQueue<Event> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile String checkoutId;
+
+    private final Runnable drain = this::drain;
+
+    /**
+     * @param consumer runs the drain task, e.g. mainHandler::post
+     */
+    BridgeEventQueue(Executor consumer, BridgeMessageDispatcher.Sink target) {
+        this.consumer = consumer;
+        this.target = target;
+    }
+
+    @Override
+    public void onSuccess(String transactionId, String merchantOrderId, String orderId) {
+        offer(new Event(SUCCESS, transactionId, merchantOrderId, orderId));
+    }
+
+    @Override
+    public void onFailure(String error) {
+        offer(new Event(FAILURE, error, null, null));
+    }
+
+    @Override
+    public void onPending() {
+        offer(new Event(PENDING, null, null, null));
+    }
+
+    @Override
+    public void onIntent(String url, String appHint) {
+        offer(new Event(INTENT, url, appHint, null));
+    }
+
+    /** Session id for the {@link CheckoutTrace#BRIDGE_EVENT} spans. */
+    void setCheckoutId(String id) {
+        checkoutId = id;
+    }
+
+    /** Drop everything queued and ignore later events (activity is going away). */
+    void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private void offer(Event e) {
+        if (closed) return;
+        queue.offer(e);
+        if (drainScheduled.compareAndSet(false, true)) consumer.execute(drain);
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        Event e;
+        while (!closed && (e = queue.poll()) != null) {
+            CheckoutTrace.end(CheckoutTrace.BRIDGE_EVENT, checkoutId, e.queuedAt, TYPE_NAMES[e.type]);
+            switch (e.type) {
+                case SUCCESS:
+                    close();
+                    target.onSuccess(e.a, e.b, e.c);
+                    break;
+                case FAILURE:
+                    close();
+                    target.onFailure(e.a);
+                    break;
+                case PENDING:
+                    target.onPending();
+                    break;
+                default:
+                    target.onIntent(e.a, e.b);
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classifies console / AndroidBridge messages from the payment page.
+ *
+ * Most messages are page chatter. They are dropped after a cheap keyword scan, before any
+ * parsing. Only messages that can carry a status or a UPI / intent link are parsed, with
+ * {@link JsonPullReader} straight from the string, and only the fields the SDK acts on are read.
+ *
+ * Pure Java; the {@link Sink} decides what each outcome means for the UI.
+ */
+final class BridgeMessageDispatcher {
+
+    interface Sink {
+        void onSuccess(String transactionId, String merchantOrderId, String orderId);
+        void onFailure(String error);
+        void onPending();
+        void onIntent(String url, String appHint);
+    }
+
+    // outcome of parsing a '{'-prefixed message
+    private static final int ACTED = 0;
+    private static final int IGNORED = 1;
+    private static final int NOT_JSON = 2;
+
+    private final Sink sink;
+    private final UrlSchemeMatcher schemes;
+    private final AtomicLong handled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    BridgeMessageDispatcher(Sink sink) {
+        this(sink, UrlSchemeMatcher.get());
+    }
+
+    BridgeMessageDispatcher(Sink sink, UrlSchemeMatcher schemes) {
+        this.sink = sink;
+        this.schemes = schemes;
+    }
+
+    long handledCount() {
+        return handled.get();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * AndroidBridge.onMessage payload: {"kind":"log|error|postMessage","payload":"..."}.
+     */
+    void dispatchBridgeMessage(String json) {
+        if (json == null || !mayBeRelevant(json)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        String payload = null;
+        final JsonPullReader r = JsonPullReader.lenient(json);
+        try {
+            r.beginObject();
+            while (r.hasNext()) {
+                if ("payload".equals(r.nextName())) {
+                    payload = r.nextStringOrNull();
+                } else {
+                    r.skipValue();
+                }
+            }
+        } catch (IOException e) {
+            throw unreachable(e);
+        }
+        // our injected script always sends valid JSON; anything else is not ours
+        if (payload == null || r.isMalformed()) {
+            dropped.incrementAndGet();
+            return;
+        }
+        dispatchConsoleMessage(payload);
+    }
+
+    /**
+     * A console line: either a JSON object (status / upi_intent) or text that may contain a link.
+     */
+    void dispatchConsoleMessage(String text) {
+        if (text == null || !mayBeRelevant(text)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        final String t = text.trim();
+        if (t.startsWith("{")) {
+            final int r = dispatchObject(t);
+            if (r != NOT_JSON) {
+                (r == ACTED ? handled : dropped).incrementAndGet();
+                return;
+            }
+        }
+        // try extracting an intent/upi token
+        final String link = schemes.findFirst(t);
+        if (link != null) {
+            handled.incrementAndGet();
+            sink.onIntent(link, null);
+            return;
+        }
+        dropped.incrementAndGet();
+    }
+
+    private int dispatchObject(String t) {
+        String status = null, mo = null, txn = null, orderId = null, error = null;
+        String kind = null, url = null, app = null;
+        final JsonPullReader r = JsonPullReader.lenient(t);
+        try {
+            r.beginObject();
+            String name;
+            while (r.hasNext() && (name = r.nextName()) != null) {
+                switch (name) {
+                    case "status": status = r.nextStringOrNull(); break;
+                    case "merchantOrderId": mo = r.nextStringOrNull(); break;
+                    case "transactionId": txn = r.nextStringOrNull(); break;
+                    case "orderId": orderId = r.nextStringOrNull(); break;
+                    case "error": error = r.nextStringOrNull(); break;
+                    case "kind": kind = r.nextStringOrNull(); break;
+                    case "payload":
+                        // { kind: "upi_intent", payload: { url: "...", app: "..."} }
+                        if (r.peek() != JsonPullReader.Token.BEGIN_OBJECT) {
+                            r.skipValue();
+                            break;
+                        }
+                        r.beginObject();
+                        while (r.hasNext()) {
+                            String n = r.nextName();
+                            if ("url".equals(n)) url = r.nextStringOrNull();
+                            else if ("app".equals(n)) app = r.nextStringOrNull();
+                            else r.skipValue();
+                        }
+                        r.endObject();
+                        break;
+                    default: r.skipValue(); break;
+                }
+            }
+        } catch (IOException e) {
+            throw unreachable(e);
+        }
+        // starts with '{' but is not JSON: treat it as plain text
+        if (r.isMalformed()) return NOT_JSON;
+
+        if (status != null) {
+            final String s = status.toLowerCase(Locale.ROOT);
+            // failure first: e.g. "unsuccessful" or "success_failed" must not finish as a success
+            if (s.contains("fail") || s.contains("error") || s.contains("unsuccess")) {
+                sink.onFailure(error != null ? error : "payment failed");
+                return ACTED;
+            } else if (s.contains("success")) {
+                sink.onSuccess(txn, mo, orderId);
+                return ACTED;
+            } else if (s.contains("pending")) {
+                sink.onPending();
+                return ACTED;
+            }
+        }
+        if ("upi_intent".equalsIgnoreCase(kind) && url != null) {
+            sink.onIntent(url, app);
+            return ACTED;
+        }
+        return IGNORED;
+    }
+
+    // a lenient reader over a String neither does I/O nor throws on bad syntax
+    private static IllegalStateException unreachable(IOException e) {
+        return new IllegalStateException(e);
+    }
+
+    // keyword scan without allocating a lower-cased copy of the message
+    private boolean mayBeRelevant(String s) {
+        // "upi" catches kind:"upi_intent"; findFirst catches intent: and wallet links
+        return s.contains("status") || containsIgnoreCase(s, "upi") || schemes.findFirst(s) != null;
+    }
+
+    /** needle must be lower-case ASCII letters. */
+    static boolean containsIgnoreCase(String s, String needle) {
+        final int n = needle.length();
+        final char first = needle.charAt(0);
+        for (int i = 0, last = s.length() - n; i <= last; i++) {
+            if ((s.charAt(i) | 0x20) == first && s.regionMatches(true, i, needle, 0, n)) return true;
+        }
+        return false;
+    }
+}
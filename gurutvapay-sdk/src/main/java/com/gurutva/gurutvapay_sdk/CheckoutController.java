@@ -0,0 +1,325 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * The checkout flow without any UI: payment session, page events, app hand-offs and the result.
+ * A host ({@link GurutvaPayActivity}, or an app's own screen, service or Flutter plugin) shows
+ * what it is told through {@link Host} and reports what the payment page does. Obtain one
+ * through {@link GurutvaPay#checkout}.
+ *
+ *  - {@link Host} methods run on the callback executor (the main thread on Android); call the
+ *    controller from that thread too, except the page message methods, which take any thread
+ *  - {@link CheckoutStateMachine} decides what an event means: the first success / failure
+ *    ends the checkout, repeated pending reports reach the host once
+ *  - {@link #events()} is the checkout's log, for tracing slow or odd checkouts
+ *
+ * Pure Java, so the whole flow runs on the JVM in tests and benchmarks.
+ */
+public final class CheckoutController {
+    static final String CREATING_SESSION = "Creating payment session...";
+    static final String LOADING_PAGE = "Loading payment...";
+
+    public interface Host {
+        /** Work in progress, e.g. while the session is created; hide it once the page loaded. */
+        void onProgress(String message);
+        /** The session could not be created; the host may offer {@link #retry}. */
+        void onSessionError(String message);
+        /** Show the payment page and report {@link #onPageFinished} when it has loaded. */
+        void loadPage(String paymentUrl);
+        /** Start the app or browser for launch; false when nothing on the device handles it. */
+        boolean launch(Launch launch);
+        void onPending();
+        /** Called once; the checkout is over. */
+        void onResult(CheckoutResult result);
+    }
+
+    /** One attempt at handing a link from the payment page to another app. */
+    public static final class Launch {
+        public enum Kind {
+            /** An intent: URI, parsed by the host; its browser_fallback_url is the host's to apply. */
+            INTENT_URI,
+            /** A UPI / wallet app link; skipped when its scheme is known to have no handler. */
+            APP_LINK,
+            /** Any handler for the URL, a browser included. */
+            VIEW
+        }
+
+        public final Kind kind;
+        public final String url;
+        /** The matched link scheme, e.g. "upi:" or "phonepe://"; null for other URLs. */
+        public final String scheme;
+
+        Launch(Kind kind, String url, String scheme) {
+            this.kind = kind;
+            this.url = url;
+            this.scheme = scheme;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + url;
+        }
+    }
+
+    /** What is known about installed handlers per link scheme; see {@link UpiAppRegistry}. */
+    interface Apps {
+        /** True / false once resolved, null while unknown. */
+        Boolean isLaunchable(String scheme);
+        void markUnavailable(String scheme);
+    }
+
+    private final String appId;
+    private final Host host;
+    private final Executor callbacks;
+    private final Apps apps;
+    private final UrlSchemeMatcher schemes;
+    private final LaunchPlanner planner;
+    // one external launch per link per window
+    private final LaunchDeduper launchDeduper = new LaunchDeduper();
+    private final BridgeEventQueue events;
+    private final BridgeMessageDispatcher dispatcher;
+    private final long createdAt = CheckoutTrace.begin();
+
+    // written on the callback executor only; session is volatile for sessionId()
+    private volatile PaymentSession session;
+    private PaymentSession.Callback sessionCallback;
+    private final CheckoutStateMachine machine = new CheckoutStateMachine();
+    // CheckoutTrace span starts; 0 when tracing is off or nothing is in progress
+    private long pageLoadAt, appSwitchAt;
+    private String appSwitchScheme;
+    private boolean awaitingReturn;
+
+    CheckoutController(String appId, Host host, Executor callbacks, Apps apps, UrlSchemeMatcher schemes) {
+        this.appId = appId;
+        this.host = host;
+        this.callbacks = callbacks;
+        this.apps = apps;
+        this.schemes = schemes;
+        this.planner = new LaunchPlanner(schemes);
+        // page messages are classified on the thread they arrive on; the resulting events are
+        // delivered on the callback executor, in order
+        this.events = new BridgeEventQueue(callbacks, new BridgeMessageDispatcher.Sink() {
+            @Override
+            public void onSuccess(String transactionId, String merchantOrderId, String orderId) {
+                // a status-only success still names the order the merchant sent
+                final PaymentSession s = session;
+                if (merchantOrderId == null && s != null) {
+                    merchantOrderId = s.order != null
+                            ? s.order.merchantOrderId : InitiateCall.merchantOrderId(s.orderJson());
+                }
+                finish(CheckoutResult.success(transactionId, merchantOrderId, orderId));
+            }
+
+            @Override
+            public void onFailure(String error) {
+                finish(CheckoutResult.failure(error));
+            }
+
+            @Override
+            public void onPending() {
+                if (machine.apply(CheckoutEvent.of(CheckoutEvent.Type.PENDING, null))) host.onPending();
+            }
+
+            @Override
+            public void onIntent(String url, String appHint) {
+                openLink(url, appHint);
+            }
+        });
+        this.dispatcher = new BridgeMessageDispatcher(events, schemes);
+    }
+
+    /**
+     * Create a session for the order, or join the one already in flight for the same order.
+     *
+     * @param envBaseUrl optional, defaults to https://api.gurutvapay.com/live
+     */
+    public void initiate(String liveSaltKey1, String orderJson, String envBaseUrl) {
+        host.onProgress(CREATING_SESSION);
+        observe(PaymentSessions.start(appId, liveSaltKey1, orderJson, null, envBaseUrl,
+                PaymentSessions.DEFAULT_TTL_MS));
+    }
+
+    /**
+     * Continue with a session from {@link GurutvaPay#prepare}, or one kept across recreation.
+     * False when there is none or it can no longer be used; {@link #initiate} then.
+     */
+    public boolean resume(String sessionId) {
+        final PaymentSession s = PaymentSessions.take(sessionId);
+        if (s == null || s.isFailed() || s.isExpired()) return false;
+        final String ready = s.getPaymentUrl();
+        if (ready != null) {
+            attach(s);
+            started(s);
+            loadPage(ready);
+        } else {
+            host.onProgress(CREATING_SESSION);
+            observe(s);
+        }
+        return true;
+    }
+
+    /**
+     * The host brought the page back itself (e.g. restored WebView state); only take the
+     * session back, if it is still around.
+     */
+    public void restored(String sessionId) {
+        final PaymentSession s = PaymentSessions.take(sessionId);
+        if (s != null) {
+            attach(s);
+            started(s);
+        }
+        machine.apply(CheckoutEvent.of(CheckoutEvent.Type.SESSION_READY, null));
+    }
+
+    /** Create the session again after {@link Host#onSessionError}, with the same order. */
+    public void retry() {
+        final PaymentSession last = session;
+        if (machine.state() != CheckoutState.CREATED || last == null) return;
+        host.onProgress(CREATING_SESSION);
+        observe(PaymentSessions.start(appId, last.liveSalt, last.order == null ? last.orderJson() : null,
+                last.order, last.envBaseUrl, PaymentSessions.DEFAULT_TTL_MS));
+    }
+
+    /** console.log text from the page; any thread. */
+    public void onConsoleMessage(String message) {
+        dispatcher.dispatchConsoleMessage(message);
+    }
+
+    /** AndroidBridge.onMessage payload, {"kind":..,"payload":..}; any thread. */
+    public void onBridgeMessage(String json) {
+        dispatcher.dispatchBridgeMessage(json);
+    }
+
+    /** A navigation inside the page. True when it is an app hand-off the host must not load itself. */
+    public boolean onNavigation(String url) {
+        if (!schemes.isIntentOrUpi(url)) return false;
+        openLink(url, null);
+        return true;
+    }
+
+    public void onPageFinished() {
+        machine.apply(CheckoutEvent.of(CheckoutEvent.Type.PAGE_LOADED, null));
+        if (pageLoadAt != 0L) {
+            CheckoutTrace.end(CheckoutTrace.PAGE_LOAD, sessionId(), pageLoadAt);
+            pageLoadAt = 0L;
+        }
+    }
+
+    /** The host is in front again, e.g. after a UPI app returned. */
+    public void onForeground() {
+        if (awaitingReturn) {
+            awaitingReturn = false;
+            machine.apply(CheckoutEvent.of(CheckoutEvent.Type.RETURNED, null));
+        }
+        if (appSwitchAt != 0L) {
+            CheckoutTrace.end(CheckoutTrace.APP_SWITCH, sessionId(), appSwitchAt, appSwitchScheme);
+            appSwitchAt = 0L;
+        }
+    }
+
+    /** The current session's id, null before there is one. */
+    public String sessionId() {
+        final PaymentSession s = session;
+        return s != null ? s.getId() : null;
+    }
+
+    public CheckoutState state() {
+        return machine.state();
+    }
+
+    public boolean isFinished() {
+        return machine.state().isTerminal();
+    }
+
+    /** Everything that happened so far, in order; replay it with {@link CheckoutStateMachine#replay}. */
+    public List<CheckoutEvent> events() {
+        return machine.events();
+    }
+
+    /** Stop delivering anything to the host; the session itself keeps running. */
+    public void close() {
+        if (session != null && sessionCallback != null) session.removeCallback(sessionCallback);
+        events.close();
+    }
+
+    PaymentSession session() {
+        return session;
+    }
+
+    private void attach(PaymentSession s) {
+        if (session != null && sessionCallback != null) session.removeCallback(sessionCallback);
+        sessionCallback = null;
+        session = s;
+        events.setCheckoutId(s.getId());
+    }
+
+    private void started(PaymentSession s) {
+        machine.apply(CheckoutEvent.of(CheckoutEvent.Type.SESSION_STARTED, s.getId()));
+    }
+
+    private void observe(final PaymentSession s) {
+        attach(s);
+        started(s);
+        // a callback per session, so a late answer for a replaced session is dropped
+        final PaymentSession.Callback cb = new PaymentSession.Callback() {
+            @Override public void onReady(String paymentUrl) {
+                callbacks.execute(() -> {
+                    if (!isFinished() && session == s) loadPage(paymentUrl);
+                });
+            }
+            @Override public void onError(String message) {
+                callbacks.execute(() -> {
+                    if (!isFinished() && session == s) sessionError(message);
+                });
+            }
+        };
+        sessionCallback = cb;
+        s.whenResolved(cb);
+    }
+
+    private void loadPage(String url) {
+        if (url == null || url.trim().isEmpty()) {
+            sessionError("Empty payment URL");
+            return;
+        }
+        machine.apply(CheckoutEvent.of(CheckoutEvent.Type.SESSION_READY, url));
+        host.onProgress(LOADING_PAGE);
+        pageLoadAt = CheckoutTrace.begin();
+        host.loadPage(url);
+    }
+
+    private void sessionError(String message) {
+        machine.apply(CheckoutEvent.of(CheckoutEvent.Type.SESSION_FAILED, message));
+        host.onSessionError(message);
+    }
+
+    private void openLink(String url, String appHint) {
+        if (isFinished() || url == null || url.trim().isEmpty()) return;
+        final String key = (appHint != null ? appHint : "") + "::" + url;
+        if (!launchDeduper.tryClaim(key)) return;
+        for (Launch l : planner.plan(url, appHint)) {
+            final boolean appLink = l.kind == Launch.Kind.APP_LINK && l.scheme != null;
+            // cached answer instead of a resolveActivity binder call per variant
+            if (appLink && Boolean.FALSE.equals(apps.isLaunchable(l.scheme))) continue;
+            if (host.launch(l)) {
+                machine.apply(CheckoutEvent.of(CheckoutEvent.Type.APP_HANDED_OFF, l.scheme));
+                awaitingReturn = true;
+                appSwitchAt = CheckoutTrace.begin();
+                appSwitchScheme = l.scheme;
+                return;
+            }
+            if (appLink) apps.markUnavailable(l.scheme);
+        }
+        // nothing opened it: let the page (or the user) try the same link again
+        launchDeduper.release(key);
+    }
+
+    private void finish(CheckoutResult result) {
+        // terminal states ignore the event: a second result never reaches the host
+        if (!machine.apply(CheckoutEvent.result(result))) return;
+        CheckoutTrace.end(CheckoutTrace.RESULT, sessionId(), createdAt, result.success ? "success" : "failure");
+        host.onResult(result);
+    }
+}
@@ -0,0 +1,59 @@
+package com.gurutva.gurutvapay_sdk;
+
+/**
+ * One thing that happened during a checkout, as recorded in {@link CheckoutController#events()}.
+ * Replaying the recorded events through a new {@link CheckoutStateMachine} gives the same states,
+ * so a slow or odd checkout can be traced and reproduced from its log.
+ */
+public final class CheckoutEvent {
+    public enum Type {
+        /** A session was requested or taken over; detail is the session id. */
+        SESSION_STARTED,
+        /** detail is the payment_url; null when a restored page reloads itself. */
+        SESSION_READY,
+        /** detail is the error; the checkout stays CREATED and may retry. */
+        SESSION_FAILED,
+        PAGE_LOADED,
+        /** detail is the link scheme, e.g. "upi:", or null for a browser. */
+        APP_HANDED_OFF,
+        /** The host came back to the front after a hand-off. */
+        RETURNED,
+        PENDING,
+        /** result is set. */
+        SUCCEEDED,
+        /** result is set. */
+        FAILED
+    }
+
+    public final Type type;
+    public final String detail;
+    /** SUCCEEDED / FAILED only. */
+    public final CheckoutResult result;
+    /** Milliseconds since the checkout was created; -1 until the event is recorded. */
+    public final long atMillis;
+
+    private CheckoutEvent(Type type, String detail, CheckoutResult result, long atMillis) {
+        this.type = type;
+        this.detail = detail;
+        this.result = result;
+        this.atMillis = atMillis;
+    }
+
+    static CheckoutEvent of(Type type, String detail) {
+        return new CheckoutEvent(type, detail, null, -1);
+    }
+
+    static CheckoutEvent result(CheckoutResult result) {
+        return new CheckoutEvent(result.success ? Type.SUCCEEDED : Type.FAILED, null, result, -1);
+    }
+
+    CheckoutEvent at(long millis) {
+        return new CheckoutEvent(type, detail, result, millis);
+    }
+
+    @Override
+    public String toString() {
+        final String what = result != null ? result.toString() : detail;
+        return "+" + atMillis + "ms " + type + (what != null ? " " + what : "");
+    }
+}
@@ -0,0 +1,39 @@
+package com.gurutva.gurutvapay_sdk;
+
+/**
+ * How a checkout ended, as reported by the payment page. {@link GurutvaPayActivity} returns it
+ * as the activity result; other hosts get it from {@link CheckoutController.Host#onResult}.
+ */
+public final class CheckoutResult {
+    public final boolean success;
+    /** Success only; each may be null when the page did not report it. */
+    public final String transactionId;
+    public final String merchantOrderId;
+    public final String orderId;
+    /** Failure only. */
+    public final String error;
+
+    private CheckoutResult(boolean success, String transactionId, String merchantOrderId, String orderId,
+                           String error) {
+        this.success = success;
+        this.transactionId = transactionId;
+        this.merchantOrderId = merchantOrderId;
+        this.orderId = orderId;
+        this.error = error;
+    }
+
+    static CheckoutResult success(String transactionId, String merchantOrderId, String orderId) {
+        return new CheckoutResult(true, transactionId, merchantOrderId, orderId, null);
+    }
+
+    static CheckoutResult failure(String error) {
+        return new CheckoutResult(false, null, null, null, error);
+    }
+
+    @Override
+    public String toString() {
+        return success
+                ? "CheckoutResult{success, txn=" + transactionId + ", merchantOrderId=" + merchantOrderId + "}"
+                : "CheckoutResult{failure, " + error + "}";
+    }
+}
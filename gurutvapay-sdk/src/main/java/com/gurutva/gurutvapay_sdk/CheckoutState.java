@@ -0,0 +1,25 @@
+package com.gurutva.gurutvapay_sdk;
+
+/**
+ * Where a checkout is; see {@link CheckoutStateMachine} for the transitions.
+ *
+ *  CREATED -> INITIATED -> PAGE_LOADED -> APP_HANDED_OFF <-> PENDING -> SUCCEEDED / FAILED
+ */
+public enum CheckoutState {
+    /** Waiting for the payment session (initiate-payment-android). */
+    CREATED,
+    /** The session has its payment_url; the page is loading. */
+    INITIATED,
+    PAGE_LOADED,
+    /** A UPI / wallet app or the browser was started for the payment. */
+    APP_HANDED_OFF,
+    /** The page reported the payment as pending. */
+    PENDING,
+    SUCCEEDED,
+    FAILED;
+
+    /** Succeeded and failed are final; every later event is ignored. */
+    public boolean isTerminal() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -0,0 +1,96 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static com.gurutva.gurutvapay_sdk.CheckoutState.*;
+
+/**
+ * The checkout's state, driven only by {@link CheckoutEvent}s, with the events recorded.
+ *
+ *  - a result moves any open checkout to SUCCEEDED / FAILED; terminal states ignore everything
+ *  - the flow only moves forward: a page reload after a hand-off does not go back to PAGE_LOADED
+ *  - PENDING and APP_HANDED_OFF alternate while the user retries in another app
+ *  - SESSION_STARTED, SESSION_FAILED and RETURNED are recorded without a state change
+ *
+ * The next state depends on the current state and the event type only, so {@link #replay} of a
+ * recorded log is deterministic and ends in the same state. Thread-safe; the controller is the
+ * only writer.
+ */
+final class CheckoutStateMachine {
+    // past this, only events that change the state are kept (a page spamming pending / links)
+    static final int MAX_EVENTS = 512;
+
+    private final LongSupplier clock;
+    private final long createdAt;
+    private final List<CheckoutEvent> log = new ArrayList<>();
+    private CheckoutState state = CREATED;
+
+    CheckoutStateMachine() {
+        this(() -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    CheckoutStateMachine(LongSupplier clock) {
+        this.clock = clock;
+        this.createdAt = clock.getAsLong();
+    }
+
+    /** A machine that went through the recorded events, times kept. */
+    static CheckoutStateMachine replay(List<CheckoutEvent> events) {
+        final CheckoutStateMachine m = new CheckoutStateMachine(() -> 0L);
+        for (CheckoutEvent e : events) m.record(e);
+        return m;
+    }
+
+    static CheckoutState next(CheckoutState from, CheckoutEvent.Type event) {
+        if (from.isTerminal()) return from;
+        switch (event) {
+            case SUCCEEDED:
+                return SUCCEEDED;
+            case FAILED:
+                return FAILED;
+            case SESSION_READY:
+                return from == CREATED ? INITIATED : from;
+            case PAGE_LOADED:
+                return from == INITIATED ? PAGE_LOADED : from;
+            case APP_HANDED_OFF:
+                return from == CREATED ? from : APP_HANDED_OFF;
+            case PENDING:
+                return from == CREATED ? from : PENDING;
+            default:
+                return from;
+        }
+    }
+
+    /** Record the event and move on; true when the state changed. */
+    synchronized boolean apply(CheckoutEvent event) {
+        return record(event.at(clock.getAsLong() - createdAt));
+    }
+
+    synchronized CheckoutState state() {
+        return state;
+    }
+
+    synchronized List<CheckoutEvent> events() {
+        return Collections.unmodifiableList(new ArrayList<>(log));
+    }
+
+    /** The first result, null while the checkout is open. */
+    synchronized CheckoutResult result() {
+        for (CheckoutEvent e : log) {
+            if (e.result != null) return e.result;
+        }
+        return null;
+    }
+
+    private synchronized boolean record(CheckoutEvent event) {
+        final CheckoutState to = next(state, event.type);
+        if (to != state || log.size() < MAX_EVENTS) log.add(event);
+        if (to == state) return false;
+        state = to;
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+package com.gurutva.gurutvapay_sdk;
+
+/**
+ * Timing of the phases of a checkout, as {@link Span}s delivered to one host-registered
+ * {@link Listener} (see {@link GurutvaPay#setTraceListener}). Times come from
+ * {@link System#nanoTime()}, so spans can be subtracted but not mapped to wall-clock time.
+ *
+ * Without a listener every probe is a single volatile read: no clock reads, no allocation.
+ *
+ * Span names:
+ *  - {@link #ACTIVITY_CREATE}: GurutvaPayActivity.onCreate
+ *  - {@link #INITIATE}: initiate-payment-android until the session resolved or failed, retries
+ *    included; detail is the attempt count. Each attempt adds {@link #INITIATE_DNS} (only when
+ *    the host was not resolved recently), {@link #INITIATE_CONNECT} (~0 on a pooled connection),
+ *    {@link #INITIATE_SEND} and {@link #INITIATE_TTFB} (request sent until the status line)
+ *  - {@link #PAGE_LOAD}: loadUrl of the payment page until onPageFinished
+ *  - {@link #BRIDGE_EVENT}: a bridge message from arrival to handling on the main thread; detail
+ *    is success / failure / pending / intent
+ *  - {@link #APP_SWITCH}: launching a UPI / wallet app until the checkout is back in front;
+ *    detail is the link scheme
+ *  - {@link #RESULT}: activity creation until it finishes; detail is success / failure
+ */
+public final class CheckoutTrace {
+    public static final String ACTIVITY_CREATE = "activity.create";
+    public static final String INITIATE = "initiate";
+    public static final String INITIATE_DNS = "initiate.dns";
+    public static final String INITIATE_CONNECT = "initiate.connect";
+    public static final String INITIATE_SEND = "initiate.send";
+    public static final String INITIATE_TTFB = "initiate.ttfb";
+    public static final String PAGE_LOAD = "page.load";
+    public static final String BRIDGE_EVENT = "bridge.event";
+    public static final String APP_SWITCH = "app.switch";
+    public static final String RESULT = "result";
+
+    public interface Listener {
+        /**
+         * A span ended. Called on the thread that ended it, including the main thread, so
+         * hand the span off (e.g. into a queue or a metrics histogram) and return quickly.
+         */
+        void onSpan(Span span);
+    }
+
+    public static final class Span {
+        public final String name;
+        /** The {@link PaymentSession#getId()} the span belongs to, or null when not yet known. */
+        public final String checkoutId;
+        public final long startNanos;
+        public final long durationNanos;
+        /** Optional qualifier, see the span names. */
+        public final String detail;
+
+        Span(String name, String checkoutId, long startNanos, long durationNanos, String detail) {
+            this.name = name;
+            this.checkoutId = checkoutId;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.detail = detail;
+        }
+
+        public long durationMillis() {
+            return durationNanos / 1_000_000L;
+        }
+
+        @Override
+        public String toString() {
+            return name + (detail != null ? "[" + detail + "]" : "") + " " + durationNanos / 1_000 + "us"
+                    + (checkoutId != null ? " (" + checkoutId + ")" : "");
+        }
+    }
+
+    private static volatile Listener listener;
+    // checkout whose initiate request runs on this thread; HttpTransport adds the breakdown spans
+    private static final ThreadLocal<String> initiating = new ThreadLocal<>();
+
+    private CheckoutTrace() {}
+
+    /** Mark the calling thread as sending initiate for checkoutId; no-op when tracing is off. */
+    static void enterInitiate(String checkoutId) {
+        if (listener != null) initiating.set(checkoutId);
+    }
+
+    static void exitInitiate() {
+        initiating.remove();
+    }
+
+    /** The checkout whose initiate request runs on this thread, or null. */
+    static String initiating() {
+        return listener != null ? initiating.get() : null;
+    }
+
+    static void setListener(Listener l) {
+        listener = l;
+    }
+
+    static boolean enabled() {
+        return listener != null;
+    }
+
+    /** Start of a span, or 0 when tracing is off; pass to {@link #end}. */
+    static long begin() {
+        return listener != null ? System.nanoTime() : 0L;
+    }
+
+    static void end(String name, String checkoutId, long begin) {
+        end(name, checkoutId, begin, null);
+    }
+
+    /** Report the span begun at begin; nothing happens if begin is 0 or tracing is off. */
+    static void end(String name, String checkoutId, long begin, String detail) {
+        final Listener l = listener;
+        if (l == null || begin == 0L) return;
+        final long now = System.nanoTime();
+        try {
+            l.onSpan(new Span(name, checkoutId, begin, now - begin, detail));
+        } catch (RuntimeException e) {
+            // a broken listener must not break the checkout
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.gurutva.gurutvapay_sdk;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Background warm-up of the hosts a checkout is about to talk to, see {@link GurutvaPay#warmUp}.
+ *
+ *  - API host: DNS lookup, then a HEAD through {@link HttpTransport} so a TCP + TLS connection is
+ *    idle in the keep-alive pool when initiate-payment-android is sent
+ *  - payment page hosts: DNS lookup only; the WebView has its own connection stack
+ *
+ * A host whose lookup is still fresh in the {@link DnsCache} was warmed recently and is skipped
+ * for DNS; the API host is pre-connected on every call (a no-op round trip on a pooled
+ * connection). Concurrent warm-ups of one host collapse into one.
+ */
+final class ConnectionWarmer {
+    private static final String TAG = "ConnectionWarmer";
+    static final int PRECONNECT_TIMEOUT_MS = 10_000;
+
+    private static volatile ConnectionWarmer instance;
+
+    private final HttpTransport transport;
+    private final DnsCache dns;
+    private final Set<String> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    ConnectionWarmer(HttpTransport transport, DnsCache dns) {
+        this.transport = transport;
+        this.dns = dns;
+    }
+
+    static ConnectionWarmer get() {
+        ConnectionWarmer w = instance;
+        if (w == null) {
+            synchronized (ConnectionWarmer.class) {
+                if (instance == null) {
+                    final HttpTransport t = HttpTransport.get();
+                    instance = new ConnectionWarmer(t, t.dns());
+                }
+                w = instance;
+            }
+        }
+        return w;
+    }
+
+    /** Queue warm-up of apiUrl's host (pre-connected) and pageUrls' hosts (DNS only). */
+    void warmUp(final String apiUrl, final String... pageUrls) {
+        SdkExecutors.io().execute(() -> warmNow(apiUrl, pageUrls));
+    }
+
+    /** Blocking; returns the number of hosts actually touched. */
+    int warmNow(String apiUrl, String... pageUrls) {
+        int touched = 0;
+        if (apiUrl != null && preconnect(apiUrl)) touched++;
+        if (pageUrls != null) {
+            for (String page : pageUrls) {
+                final String host = hostOf(page);
+                if (host != null && resolve(host)) touched++;
+            }
+        }
+        return touched;
+    }
+
+    private boolean preconnect(String url) {
+        final String host = hostOf(url);
+        if (host == null || !inFlight.add("connect:" + host)) return false;
+        try {
+            dns.lookup(host);
+            transport.preconnect(url, PRECONNECT_TIMEOUT_MS);
+            return true;
+        } catch (IOException e) {
+            // the real request will report the problem; drop what we may have cached
+            dns.invalidate(host);
+            Log.w(TAG, "pre-connect to " + host + " failed: " + e.getMessage());
+            return false;
+        } finally {
+            inFlight.remove("connect:" + host);
+        }
+    }
+
+    private boolean resolve(String host) {
+        if (dns.isFresh(host) || !inFlight.add("dns:" + host)) return false;
+        try {
+            dns.lookup(host);
+            return true;
+        } catch (IOException e) {
+            Log.w(TAG, "lookup of " + host + " failed: " + e.getMessage());
+            return false;
+        } finally {
+            inFlight.remove("dns:" + host);
+        }
+    }
+
+    private static String hostOf(String url) {
+        try {
+            final String host = new URL(url).getHost();
+            return host.isEmpty() ? null : host;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Delegating factory that counts the TLS sockets it creates. Every socket performs exactly one
+ * handshake (full or resumed), so the count tells how often a request could not reuse a pooled
+ * connection.
+ */
+final class CountingSslSocketFactory extends SSLSocketFactory {
+    private final SSLSocketFactory delegate;
+    private final AtomicInteger sockets = new AtomicInteger();
+
+    CountingSslSocketFactory(SSLSocketFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    int handshakes() {
+        return sockets.get();
+    }
+
+    private Socket counted(Socket s) {
+        sockets.incrementAndGet();
+        return s;
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+        return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+        return counted(delegate.createSocket());
+    }
+
+    @Override
+    public Socket createSocket(Socket s, String host, int port, boolean autoClose) throws IOException {
+        return counted(delegate.createSocket(s, host, port, autoClose));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        return counted(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+        return counted(delegate.createSocket(host, port, localHost, localPort));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        return counted(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+        return counted(delegate.createSocket(address, port, localAddress, localPort));
+    }
+}
@@ -0,0 +1,65 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Host name lookups kept for {@link #DEFAULT_TTL_MS}. HttpURLConnection resolves on its own, so
+ * the value of a lookup here is that it primes the platform resolver (on Android the netd cache,
+ * shared with the WebView) and tells {@link ConnectionWarmer} which hosts are already warm.
+ * Failures are not cached.
+ */
+final class DnsCache {
+    static final long DEFAULT_TTL_MS = 5 * 60_000L;
+
+    interface Resolver {
+        InetAddress[] resolve(String host) throws UnknownHostException;
+    }
+
+    private static final class Entry {
+        final InetAddress[] addresses;
+        final long expiresAt;
+
+        Entry(InetAddress[] addresses, long expiresAt) {
+            this.addresses = addresses;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Resolver resolver;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    DnsCache() {
+        this(InetAddress::getAllByName, DEFAULT_TTL_MS, System::currentTimeMillis);
+    }
+
+    DnsCache(Resolver resolver, long ttlMs, LongSupplier clock) {
+        this.resolver = resolver;
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+    }
+
+    /** Cached addresses, or a blocking lookup when missing or expired. */
+    InetAddress[] lookup(String host) throws UnknownHostException {
+        final Entry e = entries.get(host);
+        final long now = clock.getAsLong();
+        if (e != null && now < e.expiresAt) return e.addresses;
+        final InetAddress[] fresh = resolver.resolve(host);
+        entries.put(host, new Entry(fresh, now + ttlMs));
+        return fresh;
+    }
+
+    boolean isFresh(String host) {
+        final Entry e = entries.get(host);
+        return e != null && clock.getAsLong() < e.expiresAt;
+    }
+
+    void invalidate(String host) {
+        entries.remove(host);
+    }
+}
@@ -0,0 +1,220 @@
+package com.gurutva.gurutvapay_sdk;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * GurutvaPay helper entrypoint.
+ *
+ * Usage:
+ *  PaymentSession s = GurutvaPay.prepare(context, liveSaltKey1, order);   // as soon as the cart is known
+ *  ...
+ *  startActivityForResult(GurutvaPay.createPaymentIntent(context, s), REQ_PAYMENT);
+ *
+ * The initiate-payment-android call runs in the background while the merchant UI is still
+ * on screen, so {@link GurutvaPayActivity} can load the payment page straight away.
+ */
+public final class GurutvaPay {
+    /** How long a resolved payment_url is trusted before the activity initiates a fresh one. */
+    public static final long DEFAULT_SESSION_TTL_MS = PaymentSessions.DEFAULT_TTL_MS;
+
+    private static TransactionJournal journal;
+
+    private GurutvaPay() {}
+
+    public static PaymentSession prepare(Context context, String liveSaltKey1, String orderJson) {
+        return prepare(context, liveSaltKey1, orderJson, null, DEFAULT_SESSION_TTL_MS);
+    }
+
+    /**
+     * Start the initiate-payment-android request now and return a handle to its result.
+     * Preparing the same merchantOrderId again returns the pending or still valid session; a
+     * changed order needs a new merchantOrderId (see {@link #discard}).
+     *
+     * @param envBaseUrl optional, defaults to https://api.gurutvapay.com/live
+     */
+    public static PaymentSession prepare(Context context, String liveSaltKey1, String orderJson,
+                                         String envBaseUrl, long ttlMs) {
+        // find the installed UPI apps while the session resolves
+        UpiAppRegistry.get(context);
+        final PaymentSession session = PaymentSessions.start(context.getPackageName(), liveSaltKey1, orderJson, null,
+                envBaseUrl, ttlMs);
+        PaymentSessions.register(session);
+        return session;
+    }
+
+    public static PaymentSession prepare(Context context, String liveSaltKey1, OrderPayload order) {
+        return prepare(context, liveSaltKey1, order, null, DEFAULT_SESSION_TTL_MS);
+    }
+
+    /**
+     * As {@link #prepare(Context, String, String, String, long)}, with a typed order that is
+     * written straight onto the request (gzip-compressed when large) instead of a JSON string.
+     */
+    public static PaymentSession prepare(Context context, String liveSaltKey1, OrderPayload order,
+                                         String envBaseUrl, long ttlMs) {
+        UpiAppRegistry.get(context);
+        final PaymentSession session = PaymentSessions.start(context.getPackageName(), liveSaltKey1, null, order,
+                envBaseUrl, ttlMs);
+        PaymentSessions.register(session);
+        return session;
+    }
+
+    /**
+     * Run all SDK background work (payment initiation, status lookups, history pages, journal
+     * writes) on the host's executor instead of the SDK's shared pool of
+     * {@value SdkExecutors#MAX_THREADS} daemon threads, e.g. a virtual-thread-per-task executor
+     * or a coroutine dispatcher's asExecutor(). The executor must not run tasks inline on the
+     * caller's thread. Pass null to go back to the shared pool.
+     */
+    public static void setExecutor(Executor executor) {
+        SdkExecutors.setHostExecutor(executor);
+    }
+
+    /**
+     * Report checkout latency spans (initiate with its DNS / connect / TTFB breakdown, page load,
+     * bridge events, app switches, result) to listener, e.g. to feed a metrics histogram. Tracing
+     * costs nothing measurable while no listener is set. Pass null to stop.
+     */
+    public static void setTraceListener(CheckoutTrace.Listener listener) {
+        CheckoutTrace.setListener(listener);
+    }
+
+    /**
+     * The checkout flow without the SDK's activity, for hosts with their own UI (or none, e.g. a
+     * Flutter plugin opening the page elsewhere). Host callbacks run on the main thread.
+     */
+    public static CheckoutController checkout(Context context, CheckoutController.Host host) {
+        final Handler main = new Handler(Looper.getMainLooper());
+        return new CheckoutController(context.getPackageName(), host, main::post,
+                UpiAppRegistry.get(context), UrlSchemeMatcher.get());
+    }
+
+    /**
+     * Intent for {@link GurutvaPayActivity} carrying the prepared session plus the regular extras,
+     * so the activity can still initiate on its own if the session expired or failed.
+     */
+    public static Intent createPaymentIntent(Context context, PaymentSession session) {
+        Intent i = new Intent(context, GurutvaPayActivity.class);
+        i.putExtra(GurutvaPayActivity.EXTRA_SESSION_ID, session.getId());
+        i.putExtra(GurutvaPayActivity.EXTRA_LIVE_SALT_KEY1, session.liveSalt);
+        i.putExtra(GurutvaPayActivity.EXTRA_ORDER_PAYLOAD_JSON, session.orderJson());
+        if (session.envBaseUrl != null) i.putExtra(GurutvaPayActivity.EXTRA_ENV_BASE_URL, session.envBaseUrl);
+        return i;
+    }
+
+    /**
+     * Opt in to WebView pooling: a configured payment WebView is created the next time the main
+     * thread is idle and reused by {@link GurutvaPayActivity} instead of building one on launch.
+     * Call on the main thread, e.g. from Application.onCreate or when the cart screen opens.
+     */
+    public static void preloadWebView(Context context) {
+        WebViewPool.preload(context);
+    }
+
+    /**
+     * Resolve and pre-connect to the API host in the background, so the initiate call finds a
+     * connection with a finished TLS handshake in the pool. Call when checkout becomes likely,
+     * e.g. when the cart screen opens. Any thread; returns at once.
+     *
+     * @param envBaseUrl optional, defaults to https://api.gurutvapay.com/live
+     * @param pageUrls   optional payment page URLs (or just their origins) whose hosts are
+     *                   looked up ahead of the WebView
+     */
+    public static void warmUp(Context context, String envBaseUrl, String... pageUrls) {
+        UpiAppRegistry.get(context);
+        ConnectionWarmer.get().warmUp(GurutvaPayApi.endpoint(envBaseUrl, ""), pageUrls);
+    }
+
+    /**
+     * Treat links with this scheme (e.g. "bhim://" or "mobikwik:") as wallet app links that the
+     * payment page hands off to an installed app, like the built-in upi: / phonepe:// / paytmmp:// / tez://.
+     *
+     * On Android 11+ the app manifest also needs a matching {@code <queries>} entry, or the
+     * wallet app is invisible to the SDK.
+     *
+     * @throws IllegalArgumentException if scheme is not a valid URI scheme
+     */
+    public static void registerWalletScheme(String scheme) {
+        UrlSchemeMatcher.get().register(scheme);
+        UpiAppRegistry.invalidate();
+    }
+
+    /**
+     * Drop a prepared session that will not be used (e.g. the cart changed); the next prepare
+     * for the order starts a new one. Give a changed order a new merchantOrderId: the
+     * Idempotency-Key is derived from it, so the server would replay the old session.
+     */
+    public static void discard(PaymentSession session) {
+        if (session != null) PaymentSessions.discard(session);
+    }
+
+    /**
+     * Blocking transaction-status-android lookup.
+     * Runs on the SDK's shared keep-alive transport, so call it from a background thread.
+     *
+     * @param envBaseUrl optional, defaults to https://api.gurutvapay.com/live
+     */
+    public static TransactionStatus checkTransactionStatus(Context context, String liveSaltKey1, String envBaseUrl,
+                                                 String merchantOrderId)
+            throws IOException, GurutvaPayException {
+        return GurutvaPayApi.transactionStatus(envBaseUrl, liveSaltKey1, context.getPackageName(), merchantOrderId);
+    }
+
+    /**
+     * Client for looking up many transactions at once; lookups are batched and coalesced.
+     *
+     * @param envBaseUrl optional, defaults to https://api.gurutvapay.com/live
+     */
+    public static TransactionStatusClient statusClient(Context context, String liveSaltKey1, String envBaseUrl) {
+        return new TransactionStatusClient(envBaseUrl, liveSaltKey1, context.getPackageName());
+    }
+
+    /**
+     * Paged view of the merchant's transaction history, newest first. Nothing is fetched until
+     * {@link TransactionHistory#loadMore} or {@link TransactionHistory#get} is called.
+     *
+     * @param envBaseUrl optional, defaults to https://api.gurutvapay.com/live
+     * @param listener   called on a background thread as pages arrive
+     */
+    public static TransactionHistory transactionHistory(Context context, String liveSaltKey1, String envBaseUrl,
+                                                        TransactionHistory.Listener listener) {
+        return new TransactionHistory(envBaseUrl, liveSaltKey1, context.getPackageName(), listener);
+    }
+
+    /**
+     * The app's transaction journal (files/gurutvapay/transactions.journal), opened on first use.
+     * Blocking the first time; call off the main thread.
+     */
+    public static synchronized TransactionJournal openTransactionJournal(Context context) throws IOException {
+        if (journal == null) {
+            File dir = new File(context.getApplicationContext().getFilesDir(), "gurutvapay");
+            journal = TransactionJournal.open(new File(dir, "transactions.journal"));
+        }
+        return journal;
+    }
+
+    /**
+     * {@link #openTransactionJournal} on the SDK executor; any thread. The future fails with the
+     * IOException if the journal cannot be opened.
+     */
+    public static CompletableFuture<TransactionJournal> openTransactionJournalAsync(Context context) {
+        final Context app = context.getApplicationContext();
+        final CompletableFuture<TransactionJournal> f = new CompletableFuture<>();
+        SdkExecutors.io().execute(() -> {
+            try {
+                f.complete(openTransactionJournal(app));
+            } catch (IOException e) {
+                f.completeExceptionally(e);
+            }
+        });
+        return f;
+    }
+}
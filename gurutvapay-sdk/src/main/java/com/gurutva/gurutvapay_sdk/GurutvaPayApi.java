@@ -0,0 +1,209 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Blocking calls to the GurutvaPay REST API. Never call from the main thread.
+ * All requests go through the shared {@link HttpTransport}; responses are streamed through
+ * {@link JsonPullReader} and only the fields the SDK uses are materialized.
+ */
+final class GurutvaPayApi {
+    static final String DEFAULT_BASE = "https://api.gurutvapay.com/live";
+
+    private static final int INITIATE_TIMEOUT_MS = 15_000;
+    private static final int STATUS_TIMEOUT_MS = 10_000;
+
+    // generous for the JSON we expect, small enough to reject HTML error pages early
+    static final long MAX_RESPONSE_BYTES = 64 * 1024;
+    static final long MAX_BATCH_RESPONSE_BYTES = 512 * 1024;
+
+    private GurutvaPayApi() {}
+
+    static String endpoint(String envBase, String path) {
+        final String base = envBase != null ? envBase : DEFAULT_BASE;
+        return base.endsWith("/") ? base + path : base + "/" + path;
+    }
+
+    /**
+     * POST initiate-payment-android and return the payment_url of the session. Requests with the
+     * same idempotencyKey (may be null) get the same session back.
+     */
+    static String initiatePayment(String envBase, String liveSalt, String appId, String orderJson,
+                                  String idempotencyKey)
+            throws IOException, GurutvaPayException {
+        Map<String, String> headers = authHeaders(liveSalt, appId);
+        headers.put("Content-Type", "application/json");
+        headers.put("Idempotency-Key", idempotencyKey);
+        byte[] body = orderJson != null ? orderJson.getBytes("UTF-8") : null;
+
+        return HttpTransport.get().post(endpoint(envBase, "initiate-payment-android"), headers, body,
+                INITIATE_TIMEOUT_MS, MAX_RESPONSE_BYTES, GurutvaPayApi::readPaymentUrl);
+    }
+
+    /** As above, with the order serialized straight onto the request stream. */
+    static String initiatePayment(String envBase, String liveSalt, String appId, final OrderPayload order,
+                                  String idempotencyKey)
+            throws IOException, GurutvaPayException {
+        Map<String, String> headers = authHeaders(liveSalt, appId);
+        headers.put("Content-Type", "application/json");
+        headers.put("Idempotency-Key", idempotencyKey);
+
+        return HttpTransport.get().postStream(endpoint(envBase, "initiate-payment-android"), headers,
+                new HttpTransport.RequestBody() {
+                    @Override public long sizeHint() { return order.sizeHint(); }
+                    @Override public long contentLength() { return -1; }
+                    @Override public void writeTo(OutputStream out) throws IOException { order.writeTo(out); }
+                },
+                INITIATE_TIMEOUT_MS, MAX_RESPONSE_BYTES, GurutvaPayApi::readPaymentUrl);
+    }
+
+    /**
+     * POST transaction-status-android?merchantOrderId=...
+     */
+    static TransactionStatus transactionStatus(String envBase, String liveSalt, String appId,
+                                               final String merchantOrderId)
+            throws IOException, GurutvaPayException {
+        String q = "?merchantOrderId=" + URLEncoder.encode(merchantOrderId, "UTF-8");
+        return HttpTransport.get().post(endpoint(envBase, "transaction-status-android") + q,
+                authHeaders(liveSalt, appId), null, STATUS_TIMEOUT_MS, MAX_RESPONSE_BYTES,
+                (code, in) -> {
+                    try {
+                        JsonPullReader r = new JsonPullReader(in);
+                        return TransactionStatus.read(r, merchantOrderId);
+                    } catch (JsonPullReader.SyntaxException e) {
+                        throw new GurutvaPayException("invalid json response: " + e.getMessage(), code);
+                    }
+                });
+    }
+
+    /**
+     * POST transaction-status-batch-android with {"merchantOrderIds":[...]}.
+     * Expects {"results":[{"merchantOrderId":..,"status":..}, ...]}; ids missing from the
+     * response are reported as errors. Servers without the endpoint answer 404/405/501.
+     */
+    static Map<String, TransactionStatus> transactionStatusBatch(String envBase, String liveSalt, String appId,
+                                                                 Collection<String> merchantOrderIds)
+            throws IOException, GurutvaPayException {
+        Map<String, String> headers = authHeaders(liveSalt, appId);
+        headers.put("Content-Type", "application/json");
+        final StringWriter req = new StringWriter(16 + 24 * merchantOrderIds.size());
+        final JsonStreamWriter w = new JsonStreamWriter(req);
+        w.beginObject().name("merchantOrderIds").beginArray();
+        for (String id : merchantOrderIds) w.value(id);
+        w.endArray().endObject();
+        final byte[] body = req.toString().getBytes("UTF-8");
+
+        Map<String, TransactionStatus> out = HttpTransport.get().post(
+                endpoint(envBase, "transaction-status-batch-android"), headers, body,
+                STATUS_TIMEOUT_MS, MAX_BATCH_RESPONSE_BYTES, GurutvaPayApi::readBatchResults);
+        for (String id : merchantOrderIds) {
+            if (!out.containsKey(id)) out.put(id, TransactionStatus.error(id, "missing from batch response"));
+        }
+        return out;
+    }
+
+    /**
+     * POST transaction-history-android?limit=..[&cursor=..], newest first.
+     * Expects {"items":[{...}, ...], "nextCursor": "..." | null}.
+     */
+    static TransactionHistory.Page transactionHistory(String envBase, String liveSalt, String appId,
+                                                      String cursor, int limit)
+            throws IOException, GurutvaPayException {
+        String q = "?limit=" + limit;
+        if (cursor != null) q += "&cursor=" + URLEncoder.encode(cursor, "UTF-8");
+        return HttpTransport.get().post(endpoint(envBase, "transaction-history-android") + q,
+                authHeaders(liveSalt, appId), null, STATUS_TIMEOUT_MS, MAX_BATCH_RESPONSE_BYTES,
+                GurutvaPayApi::readHistoryPage);
+    }
+
+    private static TransactionHistory.Page readHistoryPage(int code, Reader in)
+            throws IOException, GurutvaPayException {
+        List<TransactionRecord> items = new ArrayList<>();
+        String next = null;
+        try {
+            JsonPullReader r = new JsonPullReader(in);
+            r.beginObject();
+            while (r.hasNext()) {
+                switch (r.nextName()) {
+                    case "items":
+                        r.beginArray();
+                        while (r.hasNext()) {
+                            TransactionRecord t = TransactionRecord.read(r);
+                            if (t != null) items.add(t);
+                        }
+                        r.endArray();
+                        break;
+                    case "nextCursor": next = r.nextStringOrNull(); break;
+                    default: r.skipValue(); break;
+                }
+            }
+            r.endObject();
+        } catch (JsonPullReader.SyntaxException e) {
+            throw new GurutvaPayException("invalid json response: " + e.getMessage(), code);
+        }
+        return new TransactionHistory.Page(items, next);
+    }
+
+    static String readPaymentUrl(int code, Reader in) throws IOException, GurutvaPayException {
+        try {
+            JsonPullReader r = new JsonPullReader(in);
+            String url = null;
+            boolean found = false;
+            r.beginObject();
+            while (r.hasNext()) {
+                if ("payment_url".equals(r.nextName())) {
+                    url = r.nextStringOrNull();
+                    found = true;
+                    // nothing else in the body is needed; the transport drains the rest
+                    break;
+                }
+                r.skipValue();
+            }
+            if (!found) throw new GurutvaPayException("missing payment_url in response", code);
+            return url;
+        } catch (JsonPullReader.SyntaxException e) {
+            throw new GurutvaPayException("invalid json response: " + e.getMessage(), code);
+        }
+    }
+
+    static Map<String, TransactionStatus> readBatchResults(int code, Reader in)
+            throws IOException, GurutvaPayException {
+        Map<String, TransactionStatus> out = new HashMap<>();
+        try {
+            JsonPullReader r = new JsonPullReader(in);
+            r.beginObject();
+            while (r.hasNext()) {
+                if (!"results".equals(r.nextName())) {
+                    r.skipValue();
+                    continue;
+                }
+                r.beginArray();
+                while (r.hasNext()) {
+                    TransactionStatus st = TransactionStatus.read(r, null);
+                    if (st.merchantOrderId != null) out.put(st.merchantOrderId, st);
+                }
+                r.endArray();
+            }
+            r.endObject();
+        } catch (JsonPullReader.SyntaxException e) {
+            throw new GurutvaPayException("invalid json response: " + e.getMessage(), code);
+        }
+        return out;
+    }
+
+    private static Map<String, String> authHeaders(String liveSalt, String appId) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Live-Salt-Key1", liveSalt);
+        headers.put("appId", appId);
+        return headers;
+    }
+}
@@ -0,0 +1,37 @@
+package com.gurutva.gurutvapay_sdk;
+
+/**
+ * Raised when the GurutvaPay API answers but the answer cannot be used
+ * (non-2xx status, malformed body, missing fields).
+ *
+ * Transport failures are surfaced as plain {@link java.io.IOException}.
+ */
+public class GurutvaPayException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final int httpCode;
+    private long retryAfterMs = -1;
+
+    public GurutvaPayException(String message) {
+        this(message, -1);
+    }
+
+    public GurutvaPayException(String message, int httpCode) {
+        super(message);
+        this.httpCode = httpCode;
+    }
+
+    /** HTTP status of the failed call, or -1 when the failure was not an HTTP status. */
+    public int getHttpCode() {
+        return httpCode;
+    }
+
+    /** Wait requested by the server's Retry-After header, or -1 when it sent none. */
+    long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+
+    void setRetryAfterMs(long retryAfterMs) {
+        this.retryAfterMs = retryAfterMs;
+    }
+}
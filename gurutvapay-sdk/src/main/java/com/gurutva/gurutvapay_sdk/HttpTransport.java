@@ -0,0 +1,369 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+
+/**
+ * Process-wide HTTP transport used by every SDK API call.
+ *
+ * HttpURLConnection keeps idle connections in a shared keep-alive pool as long as the
+ * response body is fully read and the connection is not disconnect()ed, so this class:
+ *  - always drains the body and never calls disconnect() on the happy path
+ *  - bounds the pool through the http.keepAlive / http.maxConnections properties
+ *  - uses one SSLSocketFactory so all calls share a TLS client session cache (session resumption)
+ *
+ * Bodies are gzip-compressed both ways: responses are requested with Accept-Encoding: gzip and
+ * inflated here; request bodies of at least {@link #GZIP_MIN_BYTES} are sent with
+ * Content-Encoding: gzip unless the host answered such a request with 415 before, in which
+ * case the request is repeated uncompressed and that host gets plain bodies from then on.
+ */
+final class HttpTransport {
+    static final int MAX_IDLE_CONNECTIONS = 5;
+    static final long KEEP_ALIVE_MS = 5 * 60_000L;
+    private static final int TLS_SESSION_CACHE_SIZE = 32;
+    private static final int TLS_SESSION_TIMEOUT_S = 60 * 60;
+    // below this, gzip framing costs more than it saves
+    static final int GZIP_MIN_BYTES = 1024;
+    // of an error body, kept for the exception message
+    private static final int MAX_ERROR_CHARS = 512;
+
+    private static volatile HttpTransport instance;
+
+    private final CountingSslSocketFactory sslSocketFactory;
+    private final DnsCache dns = new DnsCache();
+    // hosts that rejected a gzip request body
+    private final Set<String> plainBodyHosts = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /** A request body that can be written more than once (retries, the gzip fallback). */
+    interface RequestBody {
+        /** Rough uncompressed size in bytes, used for the gzip decision. */
+        long sizeHint();
+
+        /** Exact length in bytes, or -1 when it is only known after writing. */
+        long contentLength();
+
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Consumes a 2xx response body; called on the calling thread while the connection is open.
+     * Other responses never reach it: they fail with a GurutvaPayException carrying the code.
+     */
+    interface BodyReader<T> {
+        T read(int code, Reader body) throws IOException, GurutvaPayException;
+    }
+
+    /** Thrown when a response body is larger than the limit passed to {@link #post}. */
+    static final class BodyTooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        BodyTooLargeException(long limit) {
+            super("response body exceeds " + limit + " bytes");
+        }
+    }
+
+    static HttpTransport get() {
+        HttpTransport t = instance;
+        if (t == null) {
+            synchronized (HttpTransport.class) {
+                t = instance;
+                if (t == null) {
+                    t = new HttpTransport();
+                    instance = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    private HttpTransport() {
+        this(createSslContext());
+    }
+
+    /** @param tls null for the platform default, e.g. a context trusting a test certificate */
+    HttpTransport(SSLContext tls) {
+        // respect values the host app may have set already
+        setPropertyIfAbsent("http.keepAlive", "true");
+        setPropertyIfAbsent("http.maxConnections", String.valueOf(MAX_IDLE_CONNECTIONS));
+        setPropertyIfAbsent("http.keepAliveDuration", String.valueOf(KEEP_ALIVE_MS));
+        sslSocketFactory = new CountingSslSocketFactory(
+                tls != null ? tls.getSocketFactory() : HttpsURLConnection.getDefaultSSLSocketFactory());
+    }
+
+    /** Lookups shared with {@link ConnectionWarmer}. */
+    DnsCache dns() {
+        return dns;
+    }
+
+    /** TLS handshakes performed so far, i.e. HTTPS requests that found no idle pooled connection. */
+    int tlsHandshakes() {
+        return sslSocketFactory.handshakes();
+    }
+
+    /**
+     * HEAD url and drain the answer, whatever its status, so a connection to the host (with its
+     * TLS session) sits in the keep-alive pool for the next request.
+     */
+    void preconnect(String url, int timeoutMs) throws IOException {
+        HttpURLConnection conn = open(url, timeoutMs);
+        try {
+            conn.setRequestMethod("HEAD");
+            final int code = conn.getResponseCode();
+            final InputStream is = code < 400 ? conn.getInputStream() : conn.getErrorStream();
+            if (is != null) {
+                drain(is);
+                is.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            conn.disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * POST body (may be null for an empty body) and hand the UTF-8 response body, capped at
+     * maxBodyBytes, to reader. Whatever the reader leaves unread is drained afterwards so the
+     * connection can be reused.
+     */
+    <T> T post(String url, Map<String, String> headers, final byte[] body, int timeoutMs, long maxBodyBytes,
+               BodyReader<T> reader) throws IOException, GurutvaPayException {
+        final RequestBody rb = body == null ? null : new RequestBody() {
+            @Override public long sizeHint() { return body.length; }
+            @Override public long contentLength() { return body.length; }
+            @Override public void writeTo(OutputStream out) throws IOException { out.write(body); }
+        };
+        return postStream(url, headers, rb, timeoutMs, maxBodyBytes, reader);
+    }
+
+    /** As above, with a body that is serialized onto the connection as it is sent. */
+    <T> T postStream(String url, Map<String, String> headers, RequestBody body, int timeoutMs, long maxBodyBytes,
+               BodyReader<T> reader) throws IOException, GurutvaPayException {
+        final String host = new URL(url).getHost();
+        final boolean gzip = body != null && body.sizeHint() >= GZIP_MIN_BYTES && !plainBodyHosts.contains(host);
+        if (gzip) {
+            try {
+                return send(url, headers, body, true, timeoutMs, maxBodyBytes, reader);
+            } catch (GurutvaPayException e) {
+                if (e.getHttpCode() != 415) throw e;
+                plainBodyHosts.add(host);
+            }
+        }
+        return send(url, headers, body, false, timeoutMs, maxBodyBytes, reader);
+    }
+
+    private <T> T send(String url, Map<String, String> headers, RequestBody body, boolean gzipBody, int timeoutMs,
+                       long maxBodyBytes, BodyReader<T> reader) throws IOException, GurutvaPayException {
+        // non-null only while tracing an initiate call
+        final String checkoutId = CheckoutTrace.initiating();
+        HttpURLConnection conn = open(url, timeoutMs);
+        try {
+            conn.setRequestMethod("POST");
+            conn.setDoOutput(true);
+            for (Map.Entry<String, String> h : headers.entrySet()) {
+                if (h.getValue() != null) conn.setRequestProperty(h.getKey(), h.getValue());
+            }
+            // set explicitly, so the body is inflated below on every platform
+            conn.setRequestProperty("Accept-Encoding", "gzip");
+            prepareBody(conn, body, gzipBody);
+            long t = 0;
+            if (checkoutId != null) {
+                traceDns(conn.getURL().getHost(), checkoutId);
+                t = CheckoutTrace.begin();
+                conn.connect();
+                CheckoutTrace.end(CheckoutTrace.INITIATE_CONNECT, checkoutId, t);
+                t = CheckoutTrace.begin();
+            }
+            writeBody(conn, body, gzipBody);
+            if (checkoutId != null) {
+                CheckoutTrace.end(CheckoutTrace.INITIATE_SEND, checkoutId, t);
+                t = CheckoutTrace.begin();
+            }
+
+            int code = conn.getResponseCode();
+            if (checkoutId != null) CheckoutTrace.end(CheckoutTrace.INITIATE_TTFB, checkoutId, t);
+            // a 415 for a gzip body is retried plain by postStream(); its text does not matter
+            if (gzipBody && code == 415) throw new GurutvaPayException("HTTP 415", 415);
+            final boolean ok = code >= 200 && code < 300;
+            InputStream raw = ok ? conn.getInputStream() : conn.getErrorStream();
+            if (raw == null) raw = new ByteArrayInputStream(new byte[0]);
+            // the cap is for bodies we parse; an error page of any size (e.g. a proxy's 503) must
+            // still fail with its status code so the caller can retry it
+            if (ok && conn.getContentLengthLong() > maxBodyBytes) throw new BodyTooLargeException(maxBodyBytes);
+            final boolean gzipped = "gzip".equalsIgnoreCase(conn.getContentEncoding());
+
+            // reading to EOF and closing the stream is what releases the socket back to the pool;
+            // the limit applies to the inflated bytes
+            try (InputStream is = new LimitedInputStream(gzipped ? new GZIPInputStream(raw) : raw, maxBodyBytes)) {
+                if (!ok) {
+                    final String text = readText(new InputStreamReader(is, StandardCharsets.UTF_8), MAX_ERROR_CHARS);
+                    throw new GurutvaPayException("HTTP " + code + " - " + text, code);
+                }
+                T result = reader.read(code, new InputStreamReader(is, StandardCharsets.UTF_8));
+                try {
+                    drain(is);
+                    // the gzip trailer may be followed by bytes the inflater never asked for
+                    if (gzipped) drain(raw);
+                } catch (BodyTooLargeException e) {
+                    // the reader got what it needed; just don't pool this connection
+                    conn.disconnect();
+                }
+                return result;
+            }
+        } catch (GurutvaPayException e) {
+            e.setRetryAfterMs(retryAfterMs(conn));
+            conn.disconnect();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            // a half-used connection must not go back to the pool
+            conn.disconnect();
+            throw e;
+        }
+    }
+
+    // resolve up front so the lookup gets its own span; the connection then hits the warm resolver
+    private void traceDns(String host, String checkoutId) {
+        if (dns.isFresh(host)) return;
+        final long t = CheckoutTrace.begin();
+        try {
+            dns.lookup(host);
+        } catch (IOException e) {
+            return; // connect() reports it
+        }
+        CheckoutTrace.end(CheckoutTrace.INITIATE_DNS, checkoutId, t);
+    }
+
+    // headers and streaming mode; must precede connect()
+    private static void prepareBody(HttpURLConnection conn, RequestBody body, boolean gzip) {
+        if (body == null) {
+            conn.setFixedLengthStreamingMode(0);
+            return;
+        }
+        if (gzip) conn.setRequestProperty("Content-Encoding", "gzip");
+        final long length = gzip ? -1 : body.contentLength();
+        if (length >= 0) {
+            conn.setFixedLengthStreamingMode(length);
+        } else {
+            // length unknown until written: stream in chunks instead of buffering the whole body
+            conn.setChunkedStreamingMode(0);
+        }
+    }
+
+    private static void writeBody(HttpURLConnection conn, RequestBody body, boolean gzip) throws IOException {
+        if (body == null) {
+            conn.getOutputStream().close();
+            return;
+        }
+        try (OutputStream os = gzip ? new GZIPOutputStream(conn.getOutputStream(), 4096)
+                : new BufferedOutputStream(conn.getOutputStream(), 4096)) {
+            body.writeTo(os);
+        }
+    }
+
+    // Retry-After as delay-seconds or an HTTP date; -1 when absent or unparsable
+    private static long retryAfterMs(HttpURLConnection conn) {
+        final String v = conn.getHeaderField("Retry-After");
+        if (v == null) return -1;
+        try {
+            final long s = Long.parseLong(v.trim());
+            return s >= 0 ? s * 1000 : -1;
+        } catch (NumberFormatException e) {
+            final long at = conn.getHeaderFieldDate("Retry-After", -1);
+            return at > 0 ? Math.max(0, at - System.currentTimeMillis()) : -1;
+        }
+    }
+
+    /** Read at most maxChars of a body as text, e.g. for error messages. */
+    static String readText(Reader body, int maxChars) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] chunk = new char[512];
+        int n;
+        while (sb.length() < maxChars && (n = body.read(chunk, 0, Math.min(chunk.length, maxChars - sb.length()))) != -1) {
+            sb.append(chunk, 0, n);
+        }
+        return sb.toString().trim();
+    }
+
+    private HttpURLConnection open(String url, int timeoutMs) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        if (conn instanceof HttpsURLConnection) {
+            ((HttpsURLConnection) conn).setSSLSocketFactory(sslSocketFactory);
+        }
+        conn.setConnectTimeout(timeoutMs);
+        conn.setReadTimeout(timeoutMs);
+        conn.setUseCaches(false);
+        return conn;
+    }
+
+    private static void drain(InputStream is) throws IOException {
+        byte[] skip = new byte[1024];
+        while (is.read(skip) != -1) {
+            // discard
+        }
+    }
+
+    /** Fails the read instead of buffering an oversized (e.g. HTML error page) response. */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count(n);
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            count += n;
+            if (count > limit) throw new BodyTooLargeException(limit);
+        }
+    }
+
+    private static SSLContext createSslContext() {
+        try {
+            SSLContext ctx = SSLContext.getInstance("TLS");
+            ctx.init(null, null, null);
+            ctx.getClientSessionContext().setSessionCacheSize(TLS_SESSION_CACHE_SIZE);
+            ctx.getClientSessionContext().setSessionTimeout(TLS_SESSION_TIMEOUT_S);
+            return ctx;
+        } catch (GeneralSecurityException e) {
+            // fall back to the platform default factory
+            return null;
+        }
+    }
+
+    private static void setPropertyIfAbsent(String key, String value) {
+        if (System.getProperty(key) == null) System.setProperty(key, value);
+    }
+}
@@ -0,0 +1,156 @@
+package com.gurutva.gurutvapay_sdk;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.security.cert.CertificateException;
+import java.util.Random;
+import java.util.UUID;
+
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+
+/**
+ * One initiate-payment-android call for a {@link PaymentSession}, retried on transient failures.
+ *
+ *  - every attempt carries the same Idempotency-Key, derived from appId + merchantOrderId, so
+ *    retries (and the activity's Retry button) never create a second session server-side
+ *  - retried: I/O errors other than bad URLs / certificates / oversized bodies, HTTP 408, 429
+ *    and 5xx, at most {@link #MAX_ATTEMPTS} attempts in total
+ *  - the wait is the server's Retry-After when given (up to {@link #MAX_RETRY_AFTER_MS}, beyond
+ *    that the call fails), otherwise {@link #BASE_DELAY_MS} doubling per attempt, capped at
+ *    {@link #MAX_DELAY_MS}, +/-{@link #JITTER} jitter
+ *
+ * Waits are timers, not sleeps, so no thread is held between attempts.
+ */
+final class InitiateCall implements Runnable {
+    private static final String TAG = "InitiateCall";
+
+    static final int MAX_ATTEMPTS = 4;
+    static final long BASE_DELAY_MS = 500L;
+    static final long MAX_DELAY_MS = 8_000L;
+    static final long MAX_RETRY_AFTER_MS = 30_000L;
+    static final double JITTER = 0.2;
+
+    interface Request {
+        String send() throws IOException, GurutvaPayException;
+    }
+
+    /** Runs the next attempt after delayMs; {@link SdkExecutors#schedule} outside tests. */
+    interface Delayer {
+        void schedule(Runnable attempt, long delayMs);
+    }
+
+    private final PaymentSession session;
+    private final Request request;
+    private final Delayer delayer;
+    private final Random random;
+    private int attempts;
+    private long traceBegin;
+
+    InitiateCall(PaymentSession session, Request request, Delayer delayer, Random random) {
+        this.session = session;
+        this.request = request;
+        this.delayer = delayer;
+        this.random = random;
+    }
+
+    @Override
+    public void run() {
+        if (attempts++ == 0) traceBegin = CheckoutTrace.begin();
+        CheckoutTrace.enterInitiate(session.getId());
+        try {
+            final String url = request.send();
+            traceEnd();
+            session.resolve(url);
+        } catch (GurutvaPayException | IOException e) {
+            final long delay = retryDelay(e);
+            if (delay >= 0) {
+                Log.w(TAG, "initiate attempt " + attempts + " failed, retrying in " + delay + "ms: " + e.getMessage());
+                delayer.schedule(this, delay);
+            } else {
+                traceEnd();
+                session.fail(e instanceof GurutvaPayException ? e.getMessage() : "Network error: " + e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "initiate error", e);
+            traceEnd();
+            session.fail("Network error: " + e.getMessage());
+        } finally {
+            CheckoutTrace.exitInitiate();
+        }
+    }
+
+    private void traceEnd() {
+        CheckoutTrace.end(CheckoutTrace.INITIATE, session.getId(), traceBegin, String.valueOf(attempts));
+    }
+
+    int attempts() {
+        return attempts;
+    }
+
+    // -1: give up
+    private long retryDelay(Exception e) {
+        if (attempts >= MAX_ATTEMPTS || !isTransient(e)) return -1;
+        if (e instanceof GurutvaPayException) {
+            final long retryAfter = ((GurutvaPayException) e).getRetryAfterMs();
+            if (retryAfter > MAX_RETRY_AFTER_MS) return -1;
+            if (retryAfter >= 0) return retryAfter;
+        }
+        final double base = Math.min(MAX_DELAY_MS, BASE_DELAY_MS * Math.pow(2, attempts - 1));
+        return (long) (base * (1.0 - JITTER + 2 * JITTER * random.nextDouble()));
+    }
+
+    static boolean isTransient(Exception e) {
+        if (e instanceof GurutvaPayException) {
+            final int code = ((GurutvaPayException) e).getHttpCode();
+            return code == 408 || code == 429 || (code >= 500 && code < 600);
+        }
+        if (e instanceof HttpTransport.BodyTooLargeException
+                || e instanceof MalformedURLException
+                || e instanceof UnsupportedEncodingException
+                || e instanceof SSLPeerUnverifiedException) return false;
+        // a handshake cut off by the network is worth another try, a rejected certificate is not
+        return !(e instanceof SSLHandshakeException && e.getCause() instanceof CertificateException);
+    }
+
+    /**
+     * Stable per order: "merchantOrderId" from the order JSON, or the whole payload when it has
+     * none, so the same checkout always presents the same key.
+     */
+    static String idempotencyKey(String appId, String orderJson) {
+        return idempotencyKey(appId, merchantOrderId(orderJson), orderJson);
+    }
+
+    /** "merchantOrderId" from the order JSON, or null when it has none or is not an object. */
+    static String merchantOrderId(String orderJson) {
+        if (orderJson == null) return null;
+        try {
+            JsonPullReader r = new JsonPullReader(orderJson);
+            r.beginObject();
+            while (r.hasNext()) {
+                if ("merchantOrderId".equals(r.nextName())) return r.nextStringOrNull();
+                r.skipValue();
+            }
+        } catch (IOException e) {
+            // not an object
+        }
+        return null;
+    }
+
+    /** Same key as {@link #idempotencyKey(String, String)} for a payload with this merchantOrderId. */
+    static String idempotencyKey(String appId, OrderPayload order) {
+        return idempotencyKey(appId, order.merchantOrderId, null);
+    }
+
+    private static String idempotencyKey(String appId, String mo, String orderJson) {
+        final String seed = appId + '\n' + (mo != null ? "mo:" + mo : "body:" + orderJson);
+        try {
+            return UUID.nameUUIDFromBytes(seed.getBytes("UTF-8")).toString();
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Minimal streaming JSON pull parser (same shape as android.util.JsonReader, but plain Java so
+ * it runs in JVM tests). Callers walk the document, read the fields they need and
+ * {@link #skipValue()} the rest, so nothing but the wanted strings is allocated.
+ *
+ * Reads either from a {@link Reader} through a small buffer, or directly from a CharSequence.
+ * Syntax errors throw {@link SyntaxException}; a {@link #lenient} reader instead turns every
+ * later token into {@link Token#MALFORMED} and reads return null, for callers that only need
+ * to know whether untrusted text is JSON (e.g. page console lines).
+ */
+final class JsonPullReader implements Closeable {
+
+    enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT,
+        /** Lenient readers only: the input is not valid JSON; see {@link #isMalformed}. */
+        MALFORMED }
+
+    static final class SyntaxException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        SyntaxException(String message) {
+            super(message);
+        }
+    }
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final Reader in;
+    private final CharSequence src;
+    private final char[] buf;
+    private int pos;
+    private int limit;
+
+    private int[] stack = new int[16];
+    private int depth;
+
+    private Token peeked;
+    // text of a peeked number/boolean/null literal
+    private String peekedLiteral;
+    private final StringBuilder sb = new StringBuilder();
+    private boolean lenient;
+    // first syntax error of a lenient reader
+    private String error;
+
+    JsonPullReader(Reader in) {
+        this.in = in;
+        this.src = null;
+        this.buf = new char[1024];
+        push(EMPTY_DOCUMENT);
+    }
+
+    JsonPullReader(CharSequence src) {
+        this.in = null;
+        this.src = src;
+        this.buf = null;
+        this.limit = src.length();
+        push(EMPTY_DOCUMENT);
+    }
+
+    /** A reader that reports syntax errors through {@link #isMalformed} instead of throwing. */
+    static JsonPullReader lenient(CharSequence src) {
+        final JsonPullReader r = new JsonPullReader(src);
+        r.lenient = true;
+        return r;
+    }
+
+    boolean isMalformed() {
+        return error != null;
+    }
+
+    Token peek() throws IOException {
+        if (error != null) return Token.MALFORMED;
+        if (peeked != null) return peeked;
+        final int ctx = stack[depth - 1];
+        int c;
+        switch (ctx) {
+            case EMPTY_ARRAY:
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') return peeked = Token.END_ARRAY;
+                if (ctx == NONEMPTY_ARRAY) {
+                    if (c != ',') return malformed("expected ',' or ']'");
+                    c = nextNonWhitespace();
+                }
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                return peeked = readValueToken(c);
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') return peeked = Token.END_OBJECT;
+                if (ctx == NONEMPTY_OBJECT) {
+                    if (c != ',') return malformed("expected ',' or '}'");
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') return malformed("expected name");
+                stack[depth - 1] = DANGLING_NAME;
+                return peeked = Token.NAME;
+            case DANGLING_NAME:
+                if (nextNonWhitespace() != ':') return malformed("expected ':'");
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                return peeked = readValueToken(nextNonWhitespace());
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                return peeked = readValueToken(nextNonWhitespace());
+            default:
+                if (nextNonWhitespace() != -1) return malformed("trailing data");
+                return peeked = Token.END_DOCUMENT;
+        }
+    }
+
+    boolean hasNext() throws IOException {
+        Token t = peek();
+        return t != Token.END_OBJECT && t != Token.END_ARRAY && t != Token.END_DOCUMENT && t != Token.MALFORMED;
+    }
+
+    void beginObject() throws IOException {
+        if (expect(Token.BEGIN_OBJECT)) push(EMPTY_OBJECT);
+    }
+
+    void endObject() throws IOException {
+        if (expect(Token.END_OBJECT)) depth--;
+    }
+
+    void beginArray() throws IOException {
+        if (expect(Token.BEGIN_ARRAY)) push(EMPTY_ARRAY);
+    }
+
+    void endArray() throws IOException {
+        if (expect(Token.END_ARRAY)) depth--;
+    }
+
+    /** The next name; null only when a lenient reader hit malformed input. */
+    String nextName() throws IOException {
+        return expect(Token.NAME) ? readQuoted() : null;
+    }
+
+    /** String value; numbers and booleans are returned as their literal text. */
+    String nextString() throws IOException {
+        Token t = peek();
+        if (t == Token.STRING) {
+            peeked = null;
+            return readQuoted();
+        }
+        if (t == Token.NUMBER || t == Token.BOOLEAN) {
+            peeked = null;
+            return peekedLiteral;
+        }
+        malformed("expected a string but was " + t);
+        return null;
+    }
+
+    /** Like {@link #nextString()} but also accepts null. */
+    String nextStringOrNull() throws IOException {
+        if (peek() == Token.NULL) {
+            peeked = null;
+            return null;
+        }
+        return nextString();
+    }
+
+    void skipValue() throws IOException {
+        int count = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT: beginObject(); count++; break;
+                case BEGIN_ARRAY: beginArray(); count++; break;
+                case END_OBJECT: endObject(); count--; break;
+                case END_ARRAY: endArray(); count--; break;
+                case NAME:
+                case STRING:
+                    peeked = null;
+                    skipQuoted();
+                    break;
+                case END_DOCUMENT: malformed("unexpected end of document"); return;
+                case MALFORMED: return;
+                default: peeked = null; break;
+            }
+        } while (count > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) in.close();
+    }
+
+    private boolean expect(Token t) throws IOException {
+        final Token actual = peek();
+        if (actual != t) {
+            malformed("expected " + t + " but was " + actual);
+            return false;
+        }
+        peeked = null;
+        return true;
+    }
+
+    private Token readValueToken(int c) throws IOException {
+        switch (c) {
+            case '{': return Token.BEGIN_OBJECT;
+            case '[': return Token.BEGIN_ARRAY;
+            case '"': return Token.STRING;
+            case -1: return malformed("unexpected end of input");
+            default:
+                unread();
+                peekedLiteral = readLiteral();
+                if ("true".equals(peekedLiteral) || "false".equals(peekedLiteral)) return Token.BOOLEAN;
+                if ("null".equals(peekedLiteral)) return Token.NULL;
+                final char first = peekedLiteral.isEmpty() ? 0 : peekedLiteral.charAt(0);
+                if (first == '-' || (first >= '0' && first <= '9')) return Token.NUMBER;
+                return malformed("unexpected value");
+        }
+    }
+
+    private String readLiteral() throws IOException {
+        sb.setLength(0);
+        int c;
+        while ((c = read()) != -1) {
+            if (c == ',' || c == '}' || c == ']' || c == ':' || c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                unread();
+                break;
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    // opening quote already consumed
+    private String readQuoted() throws IOException {
+        sb.setLength(0);
+        int c;
+        while ((c = read()) != '"') {
+            if (c == -1) {
+                malformed("unterminated string");
+                return null;
+            }
+            if (c == '\\' && (c = readEscape()) == -1) return null;
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    private void skipQuoted() throws IOException {
+        int c;
+        while ((c = read()) != '"') {
+            if (c == -1) {
+                malformed("unterminated string");
+                return;
+            }
+            if (c == '\\' && readEscape() == -1) return;
+        }
+    }
+
+    private int readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'n': return '\n';
+            case 't': return '\t';
+            case 'r': return '\r';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'u':
+                int v = 0;
+                for (int i = 0; i < 4; i++) {
+                    int d = Character.digit(read(), 16);
+                    if (d < 0) {
+                        malformed("bad \\u escape");
+                        return -1;
+                    }
+                    v = (v << 4) | d;
+                }
+                return v;
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                malformed("bad escape");
+                return -1;
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (pos == limit) {
+            if (in == null) return -1;
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return src != null ? src.charAt(pos++) : buf[pos++];
+    }
+
+    // only ever called right after a successful read(), so pos > 0
+    private void unread() {
+        pos--;
+    }
+
+    private void push(int ctx) {
+        if (depth == stack.length) {
+            int[] grown = new int[depth * 2];
+            System.arraycopy(stack, 0, grown, 0, depth);
+            stack = grown;
+        }
+        stack[depth++] = ctx;
+    }
+
+    // throws, or for a lenient reader records the first error; every later peek() is MALFORMED
+    private Token malformed(String message) throws SyntaxException {
+        if (!lenient) throw new SyntaxException(message + " at " + pos);
+        if (error == null) error = message + " at " + pos;
+        peeked = null;
+        return Token.MALFORMED;
+    }
+}
@@ -0,0 +1,118 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal streaming JSON writer, the counterpart of {@link JsonPullReader}: values go straight to
+ * the underlying Writer, nothing is buffered beyond it. Names and separators are the caller's
+ * responsibility only in that calls must nest correctly; commas are inserted here.
+ */
+final class JsonStreamWriter {
+    private static final int MAX_DEPTH = 32;
+
+    private final Writer out;
+    // per nesting level: has the container got a member yet
+    private final boolean[] nonEmpty = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+
+    JsonStreamWriter(Writer out) {
+        this.out = out;
+    }
+
+    JsonStreamWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    JsonStreamWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    JsonStreamWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    JsonStreamWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    JsonStreamWriter name(String name) throws IOException {
+        separate();
+        string(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    /** Null writes a JSON null. */
+    JsonStreamWriter value(String value) throws IOException {
+        separate();
+        if (value == null) out.write("null"); else string(value);
+        return this;
+    }
+
+    JsonStreamWriter value(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /** name + value, skipped entirely when value is null. */
+    JsonStreamWriter field(String name, String value) throws IOException {
+        return value == null ? this : name(name).value(value);
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    private JsonStreamWriter open(char c) throws IOException {
+        separate();
+        if (depth == MAX_DEPTH) throw new IllegalStateException("nesting deeper than " + MAX_DEPTH);
+        out.write(c);
+        nonEmpty[depth++] = false;
+        return this;
+    }
+
+    private JsonStreamWriter close(char c) throws IOException {
+        if (depth == 0) throw new IllegalStateException("nothing to close");
+        depth--;
+        out.write(c);
+        return this;
+    }
+
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (nonEmpty[depth - 1]) out.write(',');
+            nonEmpty[depth - 1] = true;
+        }
+    }
+
+    private void string(String s) throws IOException {
+        out.write('"');
+        int start = 0;
+        final int n = s.length();
+        for (int i = 0; i < n; i++) {
+            final char c = s.charAt(i);
+            final String esc;
+            if (c == '"') esc = "\\\"";
+            else if (c == '\\') esc = "\\\\";
+            else if (c == '\n') esc = "\\n";
+            else if (c == '\r') esc = "\\r";
+            else if (c == '\t') esc = "\\t";
+            // U+2028/2029 break JavaScript parsers that eval JSON
+            else if (c < 0x20 || c == '\u2028' || c == '\u2029') esc = String.format("\\u%04x", (int) c);
+            else continue;
+            out.write(s, start, i - start);
+            out.write(esc);
+            start = i + 1;
+        }
+        out.write(s, start, n - start);
+        out.write('"');
+    }
+}
@@ -0,0 +1,76 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Grants at most one external-app launch per key within a time window.
+ *
+ * {@link #tryClaim} is a single atomic check-and-claim, so the JavaBridge thread and the main
+ * thread can race on the same link and exactly one of them wins. Entries expire with the
+ * window and the map never holds more than {@code maxKeys} of them.
+ */
+final class LaunchDeduper {
+    static final long DEFAULT_WINDOW_MS = 8_000L;
+    static final int DEFAULT_MAX_KEYS = 64;
+
+    private final long windowMs;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Long> claimedAt = new ConcurrentHashMap<>();
+
+    LaunchDeduper() {
+        this(DEFAULT_WINDOW_MS, DEFAULT_MAX_KEYS,
+                () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    LaunchDeduper(long windowMs, int maxKeys, LongSupplier clock) {
+        if (windowMs <= 0 || maxKeys <= 0) throw new IllegalArgumentException("window and maxKeys must be > 0");
+        this.windowMs = windowMs;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    /**
+     * True if the caller owns the launch for key; false if it was claimed less than a window ago.
+     */
+    boolean tryClaim(String key) {
+        final long now = clock.getAsLong();
+        final boolean[] won = new boolean[1];
+        claimedAt.compute(key, (k, last) -> {
+            if (last != null && now - last < windowMs) return last;
+            won[0] = true;
+            return now;
+        });
+        if (won[0] && claimedAt.size() > maxKeys) trim(now, key);
+        return won[0];
+    }
+
+    /** Give the key back early, e.g. when nothing could be launched. */
+    void release(String key) {
+        claimedAt.remove(key);
+    }
+
+    int size() {
+        return claimedAt.size();
+    }
+
+    // drop expired claims first, then the oldest live ones; the fresh claim is kept
+    private void trim(long now, String keep) {
+        claimedAt.values().removeIf(t -> now - t >= windowMs);
+        while (claimedAt.size() > maxKeys) {
+            String oldestKey = null;
+            long oldest = Long.MAX_VALUE;
+            for (Map.Entry<String, Long> e : claimedAt.entrySet()) {
+                if (!e.getKey().equals(keep) && e.getValue() < oldest) {
+                    oldest = e.getValue();
+                    oldestKey = e.getKey();
+                }
+            }
+            if (oldestKey == null) return;
+            claimedAt.remove(oldestKey, oldest);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.gurutva.gurutvapay_sdk;
+
+import com.gurutva.gurutvapay_sdk.CheckoutController.Launch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Which launches to try, in order, for a link the payment page hands off:
+ *
+ *  - intent: the intent URI itself (the host applies its browser_fallback_url)
+ *  - upi: with an app hint (phonepe / paytm / gpay), only that app's variant; otherwise
+ *    upi://, phonepe://, paytmmp://, tez://, then a plain VIEW of the upi link
+ *  - other registered schemes: the app link, then a plain VIEW
+ *  - anything else: a plain VIEW
+ *
+ * Pure Java; {@link CheckoutController} runs the plan against its host.
+ */
+final class LaunchPlanner {
+
+    private final UrlSchemeMatcher schemes;
+
+    LaunchPlanner(UrlSchemeMatcher schemes) {
+        this.schemes = schemes;
+    }
+
+    List<Launch> plan(String url, String appHint) {
+        final String scheme = schemes.matchPrefix(url);
+        if (UrlSchemeMatcher.INTENT.equals(scheme)) {
+            return Collections.singletonList(new Launch(Launch.Kind.INTENT_URI, url, scheme));
+        }
+        if (UrlSchemeMatcher.UPI.equals(scheme)) {
+            final String phonepe = UrlSchemeMatcher.replaceFirst(url, "upi://pay", "phonepe://pay");
+            final String paytm = UrlSchemeMatcher.replaceFirst(url, "upi://pay", "paytmmp://pay");
+            final String gpay = UrlSchemeMatcher.replaceFirst(url, "upi://pay", "tez://upi/pay");
+            if (appHint != null) {
+                final String hint = appHint.toLowerCase(Locale.ROOT);
+                if (hint.contains("phonepe")) return single(phonepe);
+                if (hint.contains("paytm")) return single(paytm);
+                if (hint.contains("gpay") || hint.contains("google")) return single(gpay);
+            }
+            final List<Launch> plan = new ArrayList<>(5);
+            for (String variant : new String[]{url, phonepe, paytm, gpay}) plan.add(app(variant));
+            plan.add(new Launch(Launch.Kind.VIEW, url, scheme));
+            return plan;
+        }
+        if (scheme != null) {
+            final List<Launch> plan = new ArrayList<>(2);
+            plan.add(new Launch(Launch.Kind.APP_LINK, url, scheme));
+            plan.add(new Launch(Launch.Kind.VIEW, url, scheme));
+            return plan;
+        }
+        return Collections.singletonList(new Launch(Launch.Kind.VIEW, url, null));
+    }
+
+    private List<Launch> single(String appLink) {
+        return Collections.singletonList(app(appLink));
+    }
+
+    private Launch app(String appLink) {
+        return new Launch(Launch.Kind.APP_LINK, appLink, schemes.matchPrefix(appLink));
+    }
+}
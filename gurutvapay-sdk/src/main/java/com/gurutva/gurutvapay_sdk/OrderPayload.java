@@ -0,0 +1,191 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed order payload for initiate-payment-android. Serialized straight onto the request stream,
+ * without building a JSONObject or an intermediate String:
+ *
+ *  OrderPayload order = OrderPayload.builder("ORD123", 499)
+ *          .purpose("T-shirt")
+ *          .customer("Asha", "asha@example.com", "9999999999", "12 MG Road", null)
+ *          .addItem("T-shirt", 1, 499)
+ *          .build();
+ *  PaymentSession s = GurutvaPay.prepare(context, liveSaltKey1, order);
+ *
+ * Immutable; null fields are left out of the JSON.
+ */
+public final class OrderPayload {
+
+    public static final class Item {
+        public final String name;
+        public final int quantity;
+        public final long amount;
+
+        Item(String name, int quantity, long amount) {
+            this.name = name;
+            this.quantity = quantity;
+            this.amount = amount;
+        }
+    }
+
+    public final String merchantOrderId;
+    public final long amount;
+    public final String channel;
+    public final String purpose;
+    public final String buyerName;
+    public final String email;
+    public final String phone;
+    public final String address1;
+    public final String address2;
+    public final List<Item> items;
+    /** Additional top-level string fields, in insertion order. */
+    public final Map<String, String> extras;
+
+    private OrderPayload(Builder b) {
+        merchantOrderId = b.merchantOrderId;
+        amount = b.amount;
+        channel = b.channel;
+        purpose = b.purpose;
+        buyerName = b.buyerName;
+        email = b.email;
+        phone = b.phone;
+        address1 = b.address1;
+        address2 = b.address2;
+        items = Collections.unmodifiableList(new ArrayList<>(b.items));
+        extras = Collections.unmodifiableMap(new LinkedHashMap<>(b.extras));
+    }
+
+    public static Builder builder(String merchantOrderId, long amount) {
+        return new Builder(merchantOrderId, amount);
+    }
+
+    public static final class Builder {
+        private final String merchantOrderId;
+        private final long amount;
+        private String channel = "android";
+        private String purpose;
+        private String buyerName, email, phone, address1, address2;
+        private final List<Item> items = new ArrayList<>();
+        private final Map<String, String> extras = new LinkedHashMap<>();
+
+        Builder(String merchantOrderId, long amount) {
+            if (merchantOrderId == null || merchantOrderId.isEmpty()) {
+                throw new IllegalArgumentException("merchantOrderId is required");
+            }
+            this.merchantOrderId = merchantOrderId;
+            this.amount = amount;
+        }
+
+        /** Defaults to "android". */
+        public Builder channel(String channel) {
+            this.channel = channel;
+            return this;
+        }
+
+        public Builder purpose(String purpose) {
+            this.purpose = purpose;
+            return this;
+        }
+
+        public Builder customer(String buyerName, String email, String phone, String address1, String address2) {
+            this.buyerName = buyerName;
+            this.email = email;
+            this.phone = phone;
+            this.address1 = address1;
+            this.address2 = address2;
+            return this;
+        }
+
+        public Builder addItem(String name, int quantity, long amount) {
+            items.add(new Item(name, quantity, amount));
+            return this;
+        }
+
+        /** Any other top-level field the merchant account expects. */
+        public Builder put(String name, String value) {
+            switch (name) {
+                case "merchantOrderId": case "amount": case "channel": case "purpose": case "customer": case "items":
+                    throw new IllegalArgumentException(name + " has its own setter");
+                default:
+                    extras.put(name, value);
+                    return this;
+            }
+        }
+
+        public OrderPayload build() {
+            return new OrderPayload(this);
+        }
+    }
+
+    /** Write the JSON as UTF-8; out is flushed, not closed. */
+    public void writeTo(OutputStream out) throws IOException {
+        final Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 2048);
+        write(new JsonStreamWriter(w));
+        w.flush();
+    }
+
+    /** The same JSON as a String, e.g. for an Intent extra. */
+    public String toJson() {
+        final StringWriter sw = new StringWriter((int) sizeHint());
+        try {
+            write(new JsonStreamWriter(sw));
+        } catch (IOException e) {
+            throw new AssertionError(e); // StringWriter does not throw
+        }
+        return sw.toString();
+    }
+
+    /** Approximate length of the JSON in chars, without serializing it. */
+    long sizeHint() {
+        long n = 96 + len(merchantOrderId) + len(channel) + len(purpose) + len(buyerName) + len(email)
+                + len(phone) + len(address1) + len(address2);
+        for (Item it : items) n += 48 + len(it.name);
+        for (Map.Entry<String, String> e : extras.entrySet()) n += 8 + len(e.getKey()) + len(e.getValue());
+        return n;
+    }
+
+    private void write(JsonStreamWriter w) throws IOException {
+        w.beginObject();
+        w.name("amount").value(amount);
+        w.field("merchantOrderId", merchantOrderId);
+        w.field("channel", channel);
+        w.field("purpose", purpose);
+        if (buyerName != null || email != null || phone != null || address1 != null || address2 != null) {
+            w.name("customer").beginObject()
+                    .field("buyer_name", buyerName)
+                    .field("email", email)
+                    .field("phone", phone)
+                    .field("address1", address1)
+                    .field("address2", address2)
+                    .endObject();
+        }
+        if (!items.isEmpty()) {
+            w.name("items").beginArray();
+            for (Item it : items) {
+                w.beginObject().field("name", it.name)
+                        .name("quantity").value(it.quantity)
+                        .name("amount").value(it.amount)
+                        .endObject();
+            }
+            w.endArray();
+        }
+        for (Map.Entry<String, String> e : extras.entrySet()) w.field(e.getKey(), e.getValue());
+        w.endObject();
+    }
+
+    private static int len(String s) {
+        return s != null ? s.length() : 0;
+    }
+}
@@ -0,0 +1,126 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Handle to a payment session that was started ahead of showing the checkout UI.
+ * Obtained from {@link GurutvaPay#prepare}; hand it to {@link GurutvaPay#createPaymentIntent}
+ * to open {@link GurutvaPayActivity} on the already resolved payment_url.
+ *
+ * Callbacks registered through {@link #whenResolved} run on the thread that resolved the
+ * session (a background thread) or inline when it is already resolved.
+ */
+public final class PaymentSession {
+
+    public interface Callback {
+        void onReady(String paymentUrl);
+        void onError(String message);
+    }
+
+    private enum State { PENDING, READY, FAILED }
+
+    private final String id;
+    final String liveSalt;
+    private String orderJson;
+    // set instead of orderJson for sessions prepared from an OrderPayload
+    final OrderPayload order;
+    final String envBaseUrl;
+    private final long ttlMs;
+    // set by PaymentSessions.start; the key the server deduplicates this order by
+    String idempotencyKey;
+
+    private State state = State.PENDING;
+    private String paymentUrl;
+    private String error;
+    private long resolvedAt;
+    private final List<Callback> callbacks = new ArrayList<>();
+
+    PaymentSession(String id, String liveSalt, String orderJson, String envBaseUrl, long ttlMs) {
+        this(id, liveSalt, orderJson, null, envBaseUrl, ttlMs);
+    }
+
+    PaymentSession(String id, String liveSalt, String orderJson, OrderPayload order, String envBaseUrl, long ttlMs) {
+        this.id = id;
+        this.liveSalt = liveSalt;
+        this.orderJson = orderJson;
+        this.order = order;
+        this.envBaseUrl = envBaseUrl;
+        this.ttlMs = ttlMs;
+    }
+
+    /** The order as JSON; serialized on first use for sessions prepared from an OrderPayload. */
+    synchronized String orderJson() {
+        if (orderJson == null && order != null) orderJson = order.toJson();
+        return orderJson;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public synchronized boolean isReady() {
+        return state == State.READY && !isExpiredLocked();
+    }
+
+    public synchronized boolean isFailed() {
+        return state == State.FAILED;
+    }
+
+    /** True once a resolved payment_url is older than the session ttl. */
+    public synchronized boolean isExpired() {
+        return isExpiredLocked();
+    }
+
+    /** The resolved payment_url, or null while pending, after failure or once expired. */
+    public synchronized String getPaymentUrl() {
+        return isReady() ? paymentUrl : null;
+    }
+
+    public void whenResolved(Callback cb) {
+        final State s;
+        synchronized (this) {
+            if (state == State.PENDING) {
+                callbacks.add(cb);
+                return;
+            }
+            s = state;
+        }
+        if (s == State.READY) cb.onReady(paymentUrl);
+        else cb.onError(error);
+    }
+
+    /** Drop a callback that has not run yet, e.g. when its activity is destroyed. */
+    synchronized void removeCallback(Callback cb) {
+        callbacks.remove(cb);
+    }
+
+    void resolve(String url) {
+        final List<Callback> pending;
+        synchronized (this) {
+            if (state != State.PENDING) return;
+            state = State.READY;
+            paymentUrl = url;
+            resolvedAt = System.currentTimeMillis();
+            pending = new ArrayList<>(callbacks);
+            callbacks.clear();
+        }
+        for (Callback cb : pending) cb.onReady(url);
+    }
+
+    void fail(String message) {
+        final List<Callback> pending;
+        synchronized (this) {
+            if (state != State.PENDING) return;
+            state = State.FAILED;
+            error = message;
+            pending = new ArrayList<>(callbacks);
+            callbacks.clear();
+        }
+        for (Callback cb : pending) cb.onError(message);
+    }
+
+    private boolean isExpiredLocked() {
+        return state == State.READY && System.currentTimeMillis() - resolvedAt > ttlMs;
+    }
+}
@@ -0,0 +1,80 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide payment sessions: starting initiate-payment-android and handing prepared sessions
+ * to the checkout that consumes them. Pure Java; {@link GurutvaPay} and
+ * {@link CheckoutController} are its Android-facing users.
+ */
+final class PaymentSessions {
+    static final long DEFAULT_TTL_MS = 5 * 60_000L;
+
+    // prepared or retained sessions waiting for a checkout to take them
+    private static final Map<String, PaymentSession> registered = new ConcurrentHashMap<>();
+    // pending or resolved sessions by idempotency key; failed ones remove themselves
+    private static final Map<String, PaymentSession> byIdempotencyKey = new ConcurrentHashMap<>();
+
+    private PaymentSessions() {}
+
+    /**
+     * Start initiate-payment-android on the SDK executor; the session is not registered. While a
+     * session for the same order (same idempotency key) is pending or still usable, that session
+     * is returned instead of issuing another request. Exactly one of orderJson / order is set.
+     */
+    static PaymentSession start(String appId, String liveSaltKey1, String orderJson, OrderPayload order,
+                                String envBaseUrl, long ttlMs) {
+        final String key = order != null
+                ? InitiateCall.idempotencyKey(appId, order) : InitiateCall.idempotencyKey(appId, orderJson);
+        byIdempotencyKey.values().removeIf(PaymentSession::isExpired);
+        final PaymentSession[] created = new PaymentSession[1];
+        final PaymentSession session = byIdempotencyKey.compute(key, (k, current) -> {
+            if (current != null && !current.isFailed() && !current.isExpired()) return current;
+            created[0] = new PaymentSession(UUID.randomUUID().toString(),
+                    liveSaltKey1, orderJson, order, envBaseUrl, ttlMs);
+            created[0].idempotencyKey = k;
+            return created[0];
+        });
+        if (created[0] == null) return session;
+
+        session.whenResolved(new PaymentSession.Callback() {
+            // the checkout is about to open the page; look its host up meanwhile
+            @Override public void onReady(String paymentUrl) {
+                ConnectionWarmer.get().warmUp(null, paymentUrl);
+            }
+            // a failed session must not block the next attempt for the same order
+            @Override public void onError(String message) {
+                byIdempotencyKey.remove(key, session);
+            }
+        });
+        SdkExecutors.io().execute(new InitiateCall(session,
+                () -> order != null
+                        ? GurutvaPayApi.initiatePayment(envBaseUrl, liveSaltKey1, appId, order, key)
+                        : GurutvaPayApi.initiatePayment(envBaseUrl, liveSaltKey1, appId, orderJson, key),
+                SdkExecutors::schedule, new Random()));
+        return session;
+    }
+
+    /** Keep a session until a checkout takes it, e.g. across activity recreation. */
+    static void register(PaymentSession session) {
+        registered.put(session.getId(), session);
+    }
+
+    /** Remove and return a registered session; each session is consumed by one checkout. */
+    static PaymentSession take(String id) {
+        return id != null ? registered.remove(id) : null;
+    }
+
+    /**
+     * Forget a session that will not be used, so the next start for its order issues a new
+     * request. The server still answers a request with the same Idempotency-Key with the old
+     * session, so an order whose contents changed needs a new merchantOrderId.
+     */
+    static void discard(PaymentSession session) {
+        registered.remove(session.getId(), session);
+        if (session.idempotencyKey != null) byIdempotencyKey.remove(session.idempotencyKey, session);
+    }
+}
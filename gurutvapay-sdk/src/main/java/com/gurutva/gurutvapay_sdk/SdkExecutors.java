@@ -0,0 +1,100 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Every background thread the SDK uses.
+ *
+ *  - {@link #io()}: one shared pool of at most {@link #MAX_THREADS} named daemon threads, idle
+ *    threads exit after {@link #KEEP_ALIVE_SECONDS}; or the host's executor if one was set
+ *    through {@link GurutvaPay#setExecutor}
+ *  - {@link #serial()}: runs its tasks one at a time, in order, on top of {@link #io()}
+ *  - {@link #schedule}: a single timer thread that only hands due tasks over to {@link #io()}
+ *
+ * Work submitted here is owned by the SDK, not by an activity, so it survives configuration
+ * changes. Tasks must not block waiting for other tasks on the same pool.
+ */
+final class SdkExecutors {
+    static final int MAX_THREADS = 4;
+    static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static volatile Executor hostExecutor;
+
+    private SdkExecutors() {}
+
+    private static final class Default {
+        static final ThreadPoolExecutor POOL;
+        static {
+            POOL = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), named("gurutvapay-io-"));
+            POOL.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    private static final class Timer {
+        static final ScheduledThreadPoolExecutor TIMER;
+        static {
+            TIMER = new ScheduledThreadPoolExecutor(1, named("gurutvapay-timer-"));
+            TIMER.setRemoveOnCancelPolicy(true);
+        }
+    }
+
+    /** The executor for SDK work: the host's, or the shared default pool. */
+    static Executor io() {
+        final Executor host = hostExecutor;
+        return host != null ? host : Default.POOL;
+    }
+
+    /** Null restores the default pool. Tasks already handed to the old executor stay there. */
+    static void setHostExecutor(Executor executor) {
+        hostExecutor = executor;
+    }
+
+    /** A new executor that runs tasks one at a time, in submission order, on {@link #io()}. */
+    static Executor serial() {
+        return new SerialExecutor();
+    }
+
+    /** Run task on {@link #io()} after delayMs; cancel through the returned future. */
+    static Future<?> schedule(final Runnable task, long delayMs) {
+        return Timer.TIMER.schedule(() -> io().execute(task), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory named(final String prefix) {
+        final AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static final class SerialExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private Runnable active;
+
+        @Override
+        public synchronized void execute(final Runnable r) {
+            tasks.add(() -> {
+                try {
+                    r.run();
+                } finally {
+                    scheduleNext();
+                }
+            });
+            if (active == null) scheduleNext();
+        }
+
+        private synchronized void scheduleNext() {
+            if ((active = tasks.poll()) != null) io().execute(active);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls pending transactions until they reach a terminal status.
+ *
+ * Each tracked merchantOrderId is polled {@link #INITIAL_DELAY_MS} after {@link #track}, then with
+ * exponential backoff (x{@link #BACKOFF}, capped at {@link #MAX_DELAY_MS}, +/-{@link #JITTER} jitter)
+ * until the status is terminal or {@link #MAX_TRACKING_MS} has passed. At most one request per
+ * id is in flight, and lookups go through {@link TransactionStatusClient}, which batches them.
+ *
+ * Listener callbacks run on a background thread.
+ */
+public final class StatusTracker {
+    static final long INITIAL_DELAY_MS = 1_000L;
+    static final long MAX_DELAY_MS = 30_000L;
+    static final long MAX_TRACKING_MS = 15 * 60_000L;
+    static final double BACKOFF = 1.6;
+    static final double JITTER = 0.2;
+
+    public interface Listener {
+        /** The status of a tracked order changed (first result included). */
+        void onStatusChanged(String merchantOrderId, TransactionStatus status);
+
+        /** Tracking ended: terminal status, timeout or {@link #untrack}. last may be null. */
+        void onTrackingStopped(String merchantOrderId, TransactionStatus last);
+    }
+
+    interface StatusSource {
+        CompletableFuture<TransactionStatus> fetch(String merchantOrderId);
+    }
+
+    /** Time source + delayed execution; replaced by a manual clock in tests. */
+    interface Scheduler {
+        long nowMillis();
+        void schedule(Runnable task, long delayMs);
+        void shutdown();
+    }
+
+    private static final class Tracked {
+        long startedAt;
+        int attempt;
+        int generation;
+        boolean timerPending;
+        boolean inFlight;
+        boolean repollAfterFetch;
+        TransactionStatus last;
+    }
+
+    private final StatusSource source;
+    private final Scheduler scheduler;
+    private final Listener listener;
+    private final Random random;
+    private final Map<String, Tracked> tracked = new HashMap<>();
+
+    public StatusTracker(TransactionStatusClient client, Listener listener) {
+        this(client::fetch, new ExecutorScheduler(), listener, new Random());
+    }
+
+    StatusTracker(StatusSource source, Scheduler scheduler, Listener listener, Random random) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.listener = listener;
+        this.random = random;
+    }
+
+    /**
+     * Start (or restart, e.g. right after a UPI app handoff) fast polling of an order.
+     */
+    public void track(String merchantOrderId) {
+        final int gen;
+        synchronized (this) {
+            Tracked t = tracked.get(merchantOrderId);
+            if (t == null) {
+                t = new Tracked();
+                tracked.put(merchantOrderId, t);
+            }
+            t.startedAt = scheduler.nowMillis();
+            t.attempt = 0;
+            t.timerPending = true;
+            // invalidates any timer scheduled before, so only one poll chain exists per order
+            gen = ++t.generation;
+        }
+        scheduler.schedule(() -> poll(merchantOrderId, gen), INITIAL_DELAY_MS);
+    }
+
+    public void untrack(String merchantOrderId) {
+        final Tracked t;
+        synchronized (this) {
+            t = tracked.remove(merchantOrderId);
+        }
+        if (t != null) listener.onTrackingStopped(merchantOrderId, t.last);
+    }
+
+    public synchronized boolean isTracking(String merchantOrderId) {
+        return tracked.containsKey(merchantOrderId);
+    }
+
+    public void shutdown() {
+        synchronized (this) {
+            tracked.clear();
+        }
+        scheduler.shutdown();
+    }
+
+    private void poll(String merchantOrderId, int gen) {
+        synchronized (this) {
+            Tracked t = tracked.get(merchantOrderId);
+            if (t == null || t.generation != gen) return;
+            t.timerPending = false;
+            if (t.inFlight) {
+                // never two requests for the same order; poll again once this one returns
+                t.repollAfterFetch = true;
+                return;
+            }
+            t.inFlight = true;
+        }
+        source.fetch(merchantOrderId).whenComplete((st, err) -> onResult(merchantOrderId, st));
+    }
+
+    private void onResult(String merchantOrderId, TransactionStatus st) {
+        boolean changed = false;
+        boolean stop = false;
+        boolean reschedule = false;
+        final TransactionStatus last;
+        final int gen;
+        long delay = 0;
+        synchronized (this) {
+            Tracked t = tracked.get(merchantOrderId);
+            if (t == null) return;
+            t.inFlight = false;
+            if (st != null && !st.isError()) {
+                changed = t.last == null || !st.status.equals(t.last.status);
+                t.last = st;
+                stop = st.isTerminal();
+            }
+            if (!stop && scheduler.nowMillis() - t.startedAt >= MAX_TRACKING_MS) stop = true;
+            if (stop) {
+                tracked.remove(merchantOrderId);
+            } else if (!t.timerPending) {
+                reschedule = true;
+                t.timerPending = true;
+                delay = t.repollAfterFetch ? 0 : nextDelay(t.attempt++);
+                t.repollAfterFetch = false;
+            }
+            last = t.last;
+            gen = t.generation;
+        }
+        if (changed) listener.onStatusChanged(merchantOrderId, st);
+        if (stop) {
+            listener.onTrackingStopped(merchantOrderId, last);
+        } else if (reschedule) {
+            scheduler.schedule(() -> poll(merchantOrderId, gen), delay);
+        }
+    }
+
+    // capped exponential backoff with symmetric jitter
+    private long nextDelay(int attempt) {
+        double base = Math.min(MAX_DELAY_MS, INITIAL_DELAY_MS * Math.pow(BACKOFF, attempt));
+        double factor = 1.0 - JITTER + 2 * JITTER * random.nextDouble();
+        return (long) (base * factor);
+    }
+
+    // timers on the SDK's shared timer; ones still pending at shutdown fire as no-ops
+    private static final class ExecutorScheduler implements Scheduler {
+        private volatile boolean shutdown;
+
+        @Override
+        public long nowMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+        }
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            if (shutdown) return;
+            SdkExecutors.schedule(() -> {
+                if (!shutdown) task.run();
+            }, delayMs);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * The merchant's transaction history from transaction-history-android, newest first, loaded
+ * page by page as positions are read.
+ *
+ *  - pages are fetched by cursor; {@link #get} returns null for a position whose page is not in
+ *    memory and starts loading it
+ *  - reading within {@link #DEFAULT_PREFETCH_DISTANCE} of the end fetches the next page
+ *  - at most {@link #DEFAULT_MAX_CACHED_PAGES} pages are kept; the least recently read one is
+ *    dropped and refetched by its cursor if it is read again
+ *
+ * Obtain through {@link GurutvaPay#transactionHistory}. Call {@link #close} when done.
+ */
+public final class TransactionHistory {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int DEFAULT_PREFETCH_DISTANCE = 20;
+    public static final int DEFAULT_MAX_CACHED_PAGES = 10;
+
+    public interface Listener {
+        /**
+         * A page arrived (on the loader thread). appended is true for a page seen for the first
+         * time, which grows {@link #size} to totalCount; false for a refetched page.
+         */
+        void onPageLoaded(int fromPosition, int itemCount, int totalCount, boolean appended);
+
+        /** Loading stopped; call {@link #retry} to resume. */
+        void onLoadError(String message);
+    }
+
+    static final class Page {
+        final List<TransactionRecord> items;
+        final String nextCursor;
+
+        Page(List<TransactionRecord> items, String nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    interface PageSource {
+        Page fetch(String cursor, int limit) throws IOException, GurutvaPayException;
+    }
+
+    private final PageSource source;
+    private final int pageSize;
+    private final int prefetchDistance;
+    private final Executor loader;
+    private final Listener listener;
+
+    // cursors.get(i) fetches page i; starts.get(i) is its first position (known pages only)
+    private final List<String> cursors = new ArrayList<>(Collections.singletonList((String) null));
+    private final List<Integer> starts = new ArrayList<>();
+    private final Map<Integer, List<TransactionRecord>> cache;
+    private final Set<Integer> loading = new HashSet<>();
+    private int total;
+    private boolean endReached;
+    private boolean failed;
+    private boolean closed;
+
+    TransactionHistory(String envBase, String liveSalt, String appId, Listener listener) {
+        this((cursor, limit) -> GurutvaPayApi.transactionHistory(envBase, liveSalt, appId, cursor, limit),
+                DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_DISTANCE, DEFAULT_MAX_CACHED_PAGES, null, listener);
+    }
+
+    /**
+     * @param loader runs page fetches; null for a serial queue on the SDK executor
+     */
+    TransactionHistory(PageSource source, int pageSize, int prefetchDistance, final int maxCachedPages,
+                       Executor loader, Listener listener) {
+        if (pageSize <= 0 || maxCachedPages <= 0) throw new IllegalArgumentException("pageSize and maxCachedPages must be > 0");
+        this.source = source;
+        this.pageSize = pageSize;
+        this.prefetchDistance = prefetchDistance;
+        this.listener = listener;
+        this.loader = loader != null ? loader : SdkExecutors.serial();
+        this.cache = new LinkedHashMap<Integer, List<TransactionRecord>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<TransactionRecord>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+    }
+
+    /** Positions known so far; grows as pages are appended. */
+    public synchronized int size() {
+        return total;
+    }
+
+    /** False once the server reported the last page. */
+    public synchronized boolean hasMore() {
+        return !endReached;
+    }
+
+    /**
+     * The record at position, or null if its page is not in memory yet (it is being loaded;
+     * {@link Listener#onPageLoaded} follows).
+     */
+    public TransactionRecord get(int position) {
+        final TransactionRecord r;
+        synchronized (this) {
+            if (position < 0 || position >= total) throw new IndexOutOfBoundsException("position " + position + ", size " + total);
+            if (position >= total - prefetchDistance) loadPage(starts.size());
+            final int page = pageOf(position);
+            final List<TransactionRecord> items = cache.get(page);
+            if (items == null) {
+                loadPage(page);
+                return null;
+            }
+            final int i = position - starts.get(page);
+            // a refetched page may have come back shorter
+            r = i < items.size() ? items.get(i) : null;
+        }
+        return r;
+    }
+
+    /**
+     * Set the status of an order in a page held in memory, e.g. after a lookup from its row; null
+     * orderId / transactionId keep the current values. A page not in memory comes back from the
+     * server with the current status anyway.
+     *
+     * @return the order's position, or -1 if it is not in a cached page
+     */
+    public synchronized int updateStatus(String merchantOrderId, String status, String orderId,
+                                         String transactionId) {
+        int page = -1, index = -1;
+        for (Map.Entry<Integer, List<TransactionRecord>> e : cache.entrySet()) {
+            final List<TransactionRecord> items = e.getValue();
+            for (int i = 0; i < items.size(); i++) {
+                if (items.get(i).merchantOrderId.equals(merchantOrderId)) {
+                    page = e.getKey();
+                    index = i;
+                    break;
+                }
+            }
+            if (page >= 0) break;
+        }
+        if (page < 0) return -1;
+        final List<TransactionRecord> updated = new ArrayList<>(cache.get(page));
+        updated.set(index, updated.get(index).withStatus(status, orderId, transactionId));
+        cache.put(page, Collections.unmodifiableList(updated));
+        return starts.get(page) + index;
+    }
+
+    public int updateStatus(TransactionStatus st) {
+        return updateStatus(st.merchantOrderId, st.status, st.orderId, st.transactionId);
+    }
+
+    /** Fetch the first page, or the next one if more are available. */
+    public synchronized void loadMore() {
+        loadPage(starts.size());
+    }
+
+    /** Resume loading after {@link Listener#onLoadError}. */
+    public synchronized void retry() {
+        failed = false;
+        loadPage(starts.size());
+    }
+
+    /** Stop loading; pages in flight are discarded. */
+    public synchronized void close() {
+        closed = true;
+        cache.clear();
+    }
+
+    // lock held
+    private void loadPage(final int page) {
+        if (closed || failed || loading.contains(page)) return;
+        if (page == starts.size() && endReached) return; // no next page
+        if (page > starts.size()) return;
+        final String cursor = cursors.get(page);
+        loading.add(page);
+        loader.execute(() -> fetch(page, cursor));
+    }
+
+    private void fetch(int page, String cursor) {
+        Page p;
+        try {
+            p = source.fetch(cursor, pageSize);
+        } catch (Exception e) {
+            synchronized (this) {
+                loading.remove(page);
+                if (closed) return;
+                failed = true;
+            }
+            if (listener != null) listener.onLoadError(e.getMessage() != null ? e.getMessage() : e.toString());
+            return;
+        }
+        final int from, count, totalNow;
+        final boolean appended;
+        synchronized (this) {
+            loading.remove(page);
+            if (closed) return;
+            appended = page == starts.size();
+            if (appended) {
+                starts.add(total);
+                total += p.items.size();
+                if (p.nextCursor == null || p.items.isEmpty()) {
+                    endReached = true;
+                } else {
+                    cursors.add(p.nextCursor);
+                }
+            }
+            cache.put(page, Collections.unmodifiableList(new ArrayList<>(p.items)));
+            from = starts.get(page);
+            // a refetched page keeps its original span, whatever the server returns now
+            count = (page + 1 < starts.size() ? starts.get(page + 1) : total) - from;
+            totalNow = total;
+        }
+        if (listener != null) listener.onPageLoaded(from, count, totalNow, appended);
+    }
+
+    // lock held; last page whose start <= position
+    private int pageOf(int position) {
+        int lo = 0, hi = starts.size() - 1;
+        while (lo < hi) {
+            final int mid = (lo + hi + 1) >>> 1;
+            if (starts.get(mid) <= position) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,400 @@
+package com.gurutva.gurutvapay_sdk;
+
+import android.system.ErrnoException;
+import android.system.Os;
+import android.system.OsConstants;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Durable store of {@link TransactionRecord}s keyed by merchantOrderId.
+ *
+ * The file is an append-only log of CRC-checked frames ([length][crc32][op, fields]); the latest
+ * frame per merchantOrderId wins. Reads are served from an in-memory index built by one
+ * sequential pass in {@link #open}. Writes update the index at once and reach the disk in
+ * batches: one write + fsync per {@link #SYNC_DELAY_MS} window, or on {@link #sync()}.
+ * A torn frame left by a crash is cut off on the next open. Once the log holds more than twice
+ * as many frames as live records (and at least {@link #COMPACT_MIN_RECORDS}), it is rewritten
+ * to a temp file and renamed over the old one. A failed write is retried with a backoff of up to
+ * {@link #MAX_RETRY_DELAY_MS}, so its records still reach the disk without another put or sync.
+ *
+ * Thread-safe. Obtain the app-wide instance through {@link GurutvaPay#openTransactionJournal}.
+ */
+public final class TransactionJournal implements Closeable {
+    private static final String TAG = "TransactionJournal";
+
+    static final int MAGIC = 0x47504a31; // "GPJ1"
+    static final long SYNC_DELAY_MS = 100L;
+    static final int COMPACT_MIN_RECORDS = 1_000;
+    static final long MAX_RETRY_DELAY_MS = 10_000L;
+
+    private static final int MAX_FRAME_BYTES = 16 * 1024;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    private final File file;
+    // held while touching the file; batches are written by the SDK executor or by sync()
+    private final Object writeLock = new Object();
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, TransactionRecord> index;
+    private List<byte[]> pending = new ArrayList<>();
+    private boolean syncScheduled;
+    private boolean closed;
+
+    // writeLock
+    private FileOutputStream out; // null after a failed reopen; the next batch opens it again
+    private boolean released;
+    private int fileRecords;
+    private int failedWrites;
+    private volatile IOException writeError;
+
+    private TransactionJournal(File file, LinkedHashMap<String, TransactionRecord> index, int fileRecords)
+            throws IOException {
+        this.file = file;
+        this.index = index;
+        this.fileRecords = fileRecords;
+        this.out = new FileOutputStream(file, true);
+    }
+
+    /**
+     * Load the journal at file, creating it if needed. Blocking; call off the main thread.
+     *
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    public static TransactionJournal open(File file) throws IOException {
+        final File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("cannot create " + dir);
+        }
+        final LinkedHashMap<String, TransactionRecord> index = new LinkedHashMap<>();
+        int records = 0;
+        if (file.length() < 4) {
+            // new, or the header itself was torn
+            try (FileOutputStream o = new FileOutputStream(file)) {
+                new DataOutputStream(o).writeInt(MAGIC);
+                o.getFD().sync();
+            }
+        } else {
+            long valid = 4;
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(file), BUFFER_BYTES))) {
+                if (in.readInt() != MAGIC) throw new IOException("not a transaction journal: " + file);
+                final CRC32 crc = new CRC32();
+                byte[] buf = new byte[256];
+                while (true) {
+                    final int len, sum;
+                    try {
+                        len = in.readInt();
+                        if (len <= 0 || len > MAX_FRAME_BYTES) break;
+                        sum = in.readInt();
+                        if (buf.length < len) buf = new byte[len];
+                        in.readFully(buf, 0, len);
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    crc.reset();
+                    crc.update(buf, 0, len);
+                    if ((int) crc.getValue() != sum) break;
+                    apply(index, buf, len);
+                    valid += 8 + len;
+                    records++;
+                }
+            }
+            if (valid < file.length()) {
+                // drop the torn / corrupt tail so new frames are not appended after garbage
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    raf.setLength(valid);
+                    raf.getFD().sync();
+                }
+            }
+        }
+        return new TransactionJournal(file, index, records);
+    }
+
+    public TransactionRecord get(String merchantOrderId) {
+        synchronized (lock) {
+            return index.get(merchantOrderId);
+        }
+    }
+
+    /** All records, in the order their merchantOrderId was first recorded. */
+    public List<TransactionRecord> records() {
+        synchronized (lock) {
+            return new ArrayList<>(index.values());
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return index.size();
+        }
+    }
+
+    /** Insert or replace the record for its merchantOrderId. Durable within {@link #SYNC_DELAY_MS}. */
+    public void put(TransactionRecord record) {
+        final byte[] frame = encodePut(record);
+        synchronized (lock) {
+            checkOpen();
+            index.put(record.merchantOrderId, record);
+            enqueue(frame);
+        }
+    }
+
+    public void remove(String merchantOrderId) {
+        final byte[] frame = encodeRemove(merchantOrderId);
+        synchronized (lock) {
+            checkOpen();
+            if (index.remove(merchantOrderId) == null) return;
+            enqueue(frame);
+        }
+    }
+
+    /**
+     * Block until every earlier put / remove is on disk, e.g. before handing off to a UPI app.
+     *
+     * @throws IOException if writing or fsync failed
+     */
+    public void sync() throws IOException {
+        // written on the calling thread; never waits on the shared executor
+        writePending();
+        final IOException e = writeError;
+        if (e != null) throw e;
+    }
+
+    /** Sync and release the file. Further writes throw IllegalStateException. */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+        }
+        try {
+            sync();
+        } finally {
+            synchronized (writeLock) {
+                closeQuietly();
+            }
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("journal is closed");
+    }
+
+    private void enqueue(byte[] frame) {
+        pending.add(frame);
+        if (!syncScheduled) {
+            syncScheduled = true;
+            SdkExecutors.schedule(this::writePending, SYNC_DELAY_MS);
+        }
+    }
+
+    private void writePending() {
+        synchronized (writeLock) {
+            writeBatch();
+        }
+    }
+
+    // writeLock held
+    private void writeBatch() {
+        if (released) return;
+        final List<byte[]> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new ArrayList<>();
+            syncScheduled = false;
+        }
+        if (batch.isEmpty()) return;
+        long start = -1;
+        try {
+            if (out == null) out = new FileOutputStream(file, true);
+            start = out.getChannel().position();
+            final ByteArrayOutputStream buf = new ByteArrayOutputStream(batch.size() * 64);
+            for (byte[] frame : batch) buf.write(frame);
+            out.write(buf.toByteArray());
+            out.getFD().sync();
+            fileRecords += batch.size();
+            failedWrites = 0;
+            writeError = null;
+        } catch (IOException e) {
+            writeError = e;
+            failedWrites++;
+            Log.w(TAG, "write of " + batch.size() + " records failed (attempt " + failedWrites + ")", e);
+            rollback(start, batch);
+            return;
+        }
+        try {
+            final int live;
+            synchronized (lock) {
+                live = index.size();
+            }
+            if (fileRecords >= COMPACT_MIN_RECORDS && fileRecords > 2 * live) compact();
+        } catch (IOException e) {
+            // the uncompacted log is still valid; try again after the next batch
+            writeError = e;
+        }
+    }
+
+    // writeLock held; cut a partial write off and write the frames again after a backoff (e.g. a
+    // transient ENOSPC / EIO), so they are not left in memory until the next put or sync
+    private void rollback(long start, List<byte[]> batch) {
+        try {
+            if (start >= 0) out.getChannel().truncate(start);
+        } catch (IOException ignored) {
+            // open() drops a torn tail anyway
+        }
+        final long delay = Math.min(MAX_RETRY_DELAY_MS, SYNC_DELAY_MS << Math.min(failedWrites, 7));
+        synchronized (lock) {
+            batch.addAll(pending);
+            pending = batch;
+            if (closed || syncScheduled) return;
+            syncScheduled = true;
+            SdkExecutors.schedule(this::writePending, delay);
+        }
+    }
+
+    private void compact() throws IOException {
+        final List<TransactionRecord> live;
+        synchronized (lock) {
+            live = new ArrayList<>(index.values());
+        }
+        final File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream o = new FileOutputStream(tmp)) {
+            final BufferedOutputStream b = new BufferedOutputStream(o, BUFFER_BYTES);
+            new DataOutputStream(b).writeInt(MAGIC);
+            for (TransactionRecord r : live) b.write(encodePut(r));
+            b.flush();
+            o.getFD().sync();
+        }
+        try {
+            out.close();
+            if (!tmp.renameTo(file)) throw new IOException("cannot replace " + file);
+            fileRecords = live.size();
+            syncDirectory(file.getParentFile());
+        } finally {
+            // never keep the closed stream: if this throws, the next batch opens the file itself
+            out = null;
+            out = new FileOutputStream(file, true);
+        }
+    }
+
+    // makes the rename durable; the old and the new file are both complete journals, so a failure
+    // only means a crash may bring the uncompacted one back
+    private static void syncDirectory(File dir) {
+        if (dir == null) return;
+        try {
+            final FileDescriptor fd = Os.open(dir.getPath(), OsConstants.O_RDONLY, 0);
+            try {
+                Os.fsync(fd);
+            } finally {
+                Os.close(fd);
+            }
+        } catch (ErrnoException e) {
+            Log.w(TAG, "cannot sync " + dir, e);
+        }
+    }
+
+    private void closeQuietly() {
+        released = true;
+        try {
+            if (out != null) out.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static byte[] encodePut(TransactionRecord r) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        final DataOutputStream d = new DataOutputStream(bytes);
+        try {
+            d.writeByte(OP_PUT);
+            d.writeUTF(r.merchantOrderId);
+            d.writeLong(r.amount);
+            writeOptional(d, r.status);
+            writeOptional(d, r.orderId);
+            writeOptional(d, r.transactionId);
+            d.writeLong(r.createdAt);
+            d.writeLong(r.updatedAt);
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw; writeUTF does for strings over 64KB
+            throw new IllegalArgumentException("record too large: " + r.merchantOrderId, e);
+        }
+        return frame(bytes.toByteArray());
+    }
+
+    private static byte[] encodeRemove(String merchantOrderId) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        final DataOutputStream d = new DataOutputStream(bytes);
+        try {
+            d.writeByte(OP_REMOVE);
+            d.writeUTF(merchantOrderId);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("merchantOrderId too large", e);
+        }
+        return frame(bytes.toByteArray());
+    }
+
+    private static byte[] frame(byte[] payload) {
+        if (payload.length > MAX_FRAME_BYTES) throw new IllegalArgumentException("record too large");
+        final CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        final byte[] f = new byte[8 + payload.length];
+        putInt(f, 0, payload.length);
+        putInt(f, 4, (int) crc.getValue());
+        System.arraycopy(payload, 0, f, 8, payload.length);
+        return f;
+    }
+
+    private static void putInt(byte[] b, int off, int v) {
+        b[off] = (byte) (v >>> 24);
+        b[off + 1] = (byte) (v >>> 16);
+        b[off + 2] = (byte) (v >>> 8);
+        b[off + 3] = (byte) v;
+    }
+
+    private static void apply(LinkedHashMap<String, TransactionRecord> index, byte[] buf, int len)
+            throws IOException {
+        final DataInputStream d = new DataInputStream(new ByteArrayInputStream(buf, 0, len));
+        final byte op = d.readByte();
+        final String mo = d.readUTF();
+        if (op == OP_REMOVE) {
+            index.remove(mo);
+            return;
+        }
+        final long amount = d.readLong();
+        final String status = readOptional(d);
+        final String orderId = readOptional(d);
+        final String txn = readOptional(d);
+        final long createdAt = d.readLong();
+        final long updatedAt = d.readLong();
+        index.put(mo, new TransactionRecord(mo, amount, status, orderId, txn, createdAt, updatedAt));
+    }
+
+    private static void writeOptional(DataOutputStream d, String s) throws IOException {
+        d.writeBoolean(s != null);
+        if (s != null) d.writeUTF(s);
+    }
+
+    private static String readOptional(DataInputStream d) throws IOException {
+        return d.readBoolean() ? d.readUTF() : null;
+    }
+}
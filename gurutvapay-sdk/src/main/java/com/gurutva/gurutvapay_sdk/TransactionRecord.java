@@ -0,0 +1,120 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.IOException;
+
+/**
+ * One merchant order as kept by {@link TransactionJournal}. Immutable; updates produce a new
+ * record with the same merchantOrderId and createdAt.
+ */
+public final class TransactionRecord {
+    public final String merchantOrderId;
+    public final long amount;
+    public final String status;
+    public final String orderId;
+    public final String transactionId;
+    public final long createdAt;
+    public final long updatedAt;
+
+    public TransactionRecord(String merchantOrderId, long amount, String status, String orderId,
+                             String transactionId, long createdAt, long updatedAt) {
+        if (merchantOrderId == null) throw new IllegalArgumentException("merchantOrderId is null");
+        this.merchantOrderId = merchantOrderId;
+        this.amount = amount;
+        this.status = status;
+        this.orderId = orderId;
+        this.transactionId = transactionId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /** A new order, status "pending". */
+    public static TransactionRecord create(String merchantOrderId, long amount) {
+        final long now = System.currentTimeMillis();
+        return new TransactionRecord(merchantOrderId, amount, "pending", null, null, now, now);
+    }
+
+    /** This record with the given status; null orderId / transactionId keep the current values. */
+    public TransactionRecord withStatus(String status, String orderId, String transactionId) {
+        return new TransactionRecord(merchantOrderId, amount, status,
+                orderId != null ? orderId : this.orderId,
+                transactionId != null ? transactionId : this.transactionId,
+                createdAt, System.currentTimeMillis());
+    }
+
+    public TransactionRecord withStatus(TransactionStatus st) {
+        return withStatus(st.status, st.orderId, st.transactionId);
+    }
+
+    /** See {@link TransactionStatus#isTerminal()}. */
+    public boolean isTerminal() {
+        return TransactionStatus.isTerminal(status);
+    }
+
+    /**
+     * Read one history item ({"merchantOrderId","amount","status","orderId","transactionId",
+     * "createdAt","updatedAt"}); other fields are skipped. Null if merchantOrderId is missing.
+     */
+    static TransactionRecord read(JsonPullReader r) throws IOException {
+        String mo = null, status = null, orderId = null, txn = null;
+        long amount = 0, createdAt = 0, updatedAt = 0;
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "merchantOrderId": mo = r.nextStringOrNull(); break;
+                case "amount": amount = parseLong(r.nextStringOrNull()); break;
+                case "status": status = r.nextStringOrNull(); break;
+                case "orderId": orderId = r.nextStringOrNull(); break;
+                case "transactionId": txn = r.nextStringOrNull(); break;
+                case "createdAt": createdAt = parseLong(r.nextStringOrNull()); break;
+                case "updatedAt": updatedAt = parseLong(r.nextStringOrNull()); break;
+                default: r.skipValue(); break;
+            }
+        }
+        r.endObject();
+        if (mo == null) return null;
+        return new TransactionRecord(mo, amount, status, orderId, txn, createdAt,
+                updatedAt != 0 ? updatedAt : createdAt);
+    }
+
+    // numbers arrive as text; "12.50" style amounts are truncated to whole units like the app's
+    private static long parseLong(String s) {
+        if (s == null) return 0;
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            try {
+                return (long) Double.parseDouble(s);
+            } catch (NumberFormatException e2) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TransactionRecord)) return false;
+        TransactionRecord r = (TransactionRecord) o;
+        return amount == r.amount && createdAt == r.createdAt && updatedAt == r.updatedAt
+                && merchantOrderId.equals(r.merchantOrderId)
+                && eq(status, r.status) && eq(orderId, r.orderId) && eq(transactionId, r.transactionId);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = merchantOrderId.hashCode();
+        h = 31 * h + (status != null ? status.hashCode() : 0);
+        h = 31 * h + (int) (updatedAt ^ (updatedAt >>> 32));
+        return h;
+    }
+
+    private static boolean eq(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionRecord{" + merchantOrderId + ", amount=" + amount + ", status=" + status
+                + (transactionId != null ? ", txn=" + transactionId : "") + "}";
+    }
+}
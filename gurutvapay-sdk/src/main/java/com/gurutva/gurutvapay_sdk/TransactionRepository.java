@@ -0,0 +1,212 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The app's transactions, addressed by merchantOrderId rather than list position.
+ *
+ * Lookups by merchantOrderId, transactionId and orderId are hash lookups. Records are
+ * immutable, so an update replaces the record under the same key and listeners get the
+ * previous and current value. With a {@link TransactionJournal} attached, every change is
+ * written through to it.
+ *
+ * Thread-safe. Listeners run on the thread that made the change, outside the repository lock.
+ */
+public final class TransactionRepository {
+
+    public interface Listener {
+        /** previous is null for a new record. */
+        void onRecordChanged(TransactionRecord previous, TransactionRecord current);
+
+        /** Records were loaded in bulk by {@link #attach}. */
+        void onRecordsLoaded(int count);
+    }
+
+    private final Object lock = new Object();
+    private final Map<String, TransactionRecord> byMerchantOrderId = new HashMap<>();
+    private final Map<String, String> byTransactionId = new HashMap<>();
+    private final Map<String, String> byOrderId = new HashMap<>();
+    // merchantOrderIds, oldest first; appending keeps inserts O(1)
+    private List<String> order = new ArrayList<>();
+    private List<TransactionRecord> snapshot; // newest first, rebuilt lazily after a change
+    private TransactionJournal journal;
+
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(Listener l) {
+        listeners.add(l);
+    }
+
+    public void removeListener(Listener l) {
+        listeners.remove(l);
+    }
+
+    /**
+     * Load the journal's records (they sort below any added so far, which are newer) and write
+     * every later change through to it. Records added before this call are written to it too.
+     */
+    public void attach(TransactionJournal journal) {
+        final int loaded;
+        synchronized (lock) {
+            if (this.journal != null) throw new IllegalStateException("journal already attached");
+            final List<TransactionRecord> saved = journal.records();
+            final List<String> merged = new ArrayList<>(saved.size() + order.size());
+            for (TransactionRecord r : saved) {
+                if (byMerchantOrderId.containsKey(r.merchantOrderId)) continue;
+                index(null, r);
+                merged.add(r.merchantOrderId);
+            }
+            loaded = merged.size();
+            for (String mo : order) {
+                merged.add(mo);
+                journal.put(byMerchantOrderId.get(mo));
+            }
+            order = merged;
+            snapshot = null;
+            this.journal = journal;
+        }
+        for (Listener l : listeners) l.onRecordsLoaded(loaded);
+    }
+
+    /** Insert a record, or replace the one with the same merchantOrderId keeping its position. */
+    public void put(TransactionRecord record) {
+        final TransactionRecord previous;
+        synchronized (lock) {
+            previous = byMerchantOrderId.get(record.merchantOrderId);
+            if (previous == null) order.add(record.merchantOrderId);
+            store(previous, record);
+        }
+        notifyChanged(previous, record);
+    }
+
+    /**
+     * Set the status of a known order; null orderId / transactionId keep the current values.
+     *
+     * @return the updated record, or null if merchantOrderId is unknown
+     */
+    public TransactionRecord updateStatus(String merchantOrderId, String status, String orderId,
+                                          String transactionId) {
+        final TransactionRecord previous, current;
+        synchronized (lock) {
+            previous = byMerchantOrderId.get(merchantOrderId);
+            if (previous == null) return null;
+            if (eq(previous.status, status)
+                    && (orderId == null || orderId.equals(previous.orderId))
+                    && (transactionId == null || transactionId.equals(previous.transactionId))) {
+                return previous; // nothing new; no write, no notification
+            }
+            current = previous.withStatus(status, orderId, transactionId);
+            store(previous, current);
+        }
+        notifyChanged(previous, current);
+        return current;
+    }
+
+    public TransactionRecord updateStatus(TransactionStatus st) {
+        return updateStatus(st.merchantOrderId, st.status, st.orderId, st.transactionId);
+    }
+
+    public TransactionRecord get(String merchantOrderId) {
+        synchronized (lock) {
+            return byMerchantOrderId.get(merchantOrderId);
+        }
+    }
+
+    public TransactionRecord findByTransactionId(String transactionId) {
+        synchronized (lock) {
+            final String mo = byTransactionId.get(transactionId);
+            return mo != null ? byMerchantOrderId.get(mo) : null;
+        }
+    }
+
+    public TransactionRecord findByOrderId(String orderId) {
+        synchronized (lock) {
+            final String mo = byOrderId.get(orderId);
+            return mo != null ? byMerchantOrderId.get(mo) : null;
+        }
+    }
+
+    /** Immutable list of all records, newest first. Unchanged repositories return the same list. */
+    public List<TransactionRecord> snapshot() {
+        synchronized (lock) {
+            if (snapshot == null) {
+                final List<TransactionRecord> s = new ArrayList<>(order.size());
+                for (int i = order.size() - 1; i >= 0; i--) s.add(byMerchantOrderId.get(order.get(i)));
+                snapshot = Collections.unmodifiableList(s);
+            }
+            return snapshot;
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return byMerchantOrderId.size();
+        }
+    }
+
+    /**
+     * Flush the attached journal to disk; no-op without one. Blocking.
+     *
+     * @throws IOException if the journal could not be written
+     */
+    public void sync() throws IOException {
+        final TransactionJournal j;
+        synchronized (lock) {
+            j = journal;
+        }
+        if (j != null) j.sync();
+    }
+
+    /**
+     * {@link #sync} on the SDK executor; any thread. The future fails with the IOException if
+     * the journal could not be written.
+     */
+    public CompletableFuture<Void> syncAsync() {
+        final CompletableFuture<Void> f = new CompletableFuture<>();
+        SdkExecutors.io().execute(() -> {
+            try {
+                sync();
+                f.complete(null);
+            } catch (IOException e) {
+                f.completeExceptionally(e);
+            }
+        });
+        return f;
+    }
+
+    // lock held
+    private void store(TransactionRecord previous, TransactionRecord current) {
+        index(previous, current);
+        snapshot = null;
+        if (journal != null) journal.put(current);
+    }
+
+    // lock held
+    private void index(TransactionRecord previous, TransactionRecord current) {
+        final String mo = current.merchantOrderId;
+        byMerchantOrderId.put(mo, current);
+        reindex(byTransactionId, previous != null ? previous.transactionId : null, current.transactionId, mo);
+        reindex(byOrderId, previous != null ? previous.orderId : null, current.orderId, mo);
+    }
+
+    private static void reindex(Map<String, String> idx, String oldKey, String newKey, String mo) {
+        if (eq(oldKey, newKey)) return;
+        if (oldKey != null) idx.remove(oldKey, mo);
+        if (newKey != null) idx.put(newKey, mo);
+    }
+
+    private void notifyChanged(TransactionRecord previous, TransactionRecord current) {
+        for (Listener l : listeners) l.onRecordChanged(previous, current);
+    }
+
+    private static boolean eq(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,79 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Result of a transaction-status lookup for one merchantOrderId.
+ * Either {@link #status} is set, or {@link #error} describes why the lookup failed.
+ */
+public final class TransactionStatus {
+    public final String merchantOrderId;
+    public final String status;
+    public final String orderId;
+    public final String transactionId;
+    public final String error;
+
+    public TransactionStatus(String merchantOrderId, String status, String orderId,
+                             String transactionId, String error) {
+        this.merchantOrderId = merchantOrderId;
+        this.status = status;
+        this.orderId = orderId;
+        this.transactionId = transactionId;
+        this.error = error;
+    }
+
+    static TransactionStatus error(String merchantOrderId, String error) {
+        return new TransactionStatus(merchantOrderId, null, null, null, error);
+    }
+
+    public boolean isError() {
+        return error != null;
+    }
+
+    /** True for statuses that will not change any more (success, failure, cancelled, expired). */
+    public boolean isTerminal() {
+        return isTerminal(status);
+    }
+
+    static boolean isTerminal(String status) {
+        if (status == null) return false;
+        final String s = status.toLowerCase(Locale.ROOT);
+        return s.contains("success") || s.contains("fail") || s.contains("cancel") || s.contains("expire");
+    }
+
+    /**
+     * Read one status object ({"merchantOrderId","status","orderId","transactionId","error"});
+     * other fields are skipped. merchantOrderId in the object wins over the given default.
+     */
+    static TransactionStatus read(JsonPullReader r, String merchantOrderId) throws IOException {
+        if (r.peek() != JsonPullReader.Token.BEGIN_OBJECT) {
+            r.skipValue();
+            return error(merchantOrderId, "unexpected status value");
+        }
+        String mo = merchantOrderId;
+        String status = null, orderId = null, txn = null, error = null;
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "merchantOrderId": mo = r.nextStringOrNull(); break;
+                case "status": status = r.nextStringOrNull(); break;
+                case "orderId": orderId = r.nextStringOrNull(); break;
+                case "transactionId": txn = r.nextStringOrNull(); break;
+                case "error": error = r.nextStringOrNull(); break;
+                default: r.skipValue(); break;
+            }
+        }
+        r.endObject();
+        if (status != null) return new TransactionStatus(mo, status, orderId, txn, null);
+        if (error != null) return error(mo, error);
+        return new TransactionStatus(mo, "unknown", null, null, null);
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionStatus{" + merchantOrderId + ", status=" + status
+                + (transactionId != null ? ", txn=" + transactionId : "")
+                + (error != null ? ", error=" + error : "") + "}";
+    }
+}
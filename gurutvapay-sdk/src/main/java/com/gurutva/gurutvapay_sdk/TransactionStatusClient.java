@@ -0,0 +1,178 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Transaction-status lookups for many merchantOrderIds.
+ *
+ *  - {@link #fetchAll} looks up a collection in chunks of {@link #MAX_BATCH_SIZE} per request
+ *  - {@link #fetch} coalesces single lookups issued within {@link #COALESCE_WINDOW_MS} into one
+ *    batch; concurrent lookups of the same id share one future, queued or in flight
+ *  - servers without transaction-status-batch-android are detected once (404/405/501) and the
+ *    client falls back to the single-id endpoint, at most {@link #MAX_PARALLEL} calls at a time
+ *
+ * Requests run on the SDK's shared executor. Obtain through {@link GurutvaPay#statusClient}.
+ * Call {@link #shutdown} when done.
+ */
+public final class TransactionStatusClient {
+    static final int MAX_BATCH_SIZE = 50;
+    static final int MAX_PARALLEL = 4;
+    static final long COALESCE_WINDOW_MS = 50L;
+
+    private final String envBase;
+    private final String liveSalt;
+    private final String appId;
+
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<TransactionStatus>> pending = new LinkedHashMap<>();
+    // flushed lookups until their future completes
+    private final Map<String, CompletableFuture<TransactionStatus>> inFlight = new HashMap<>();
+    private boolean flushScheduled;
+    private boolean shutdown;
+    private volatile boolean batchUnsupported;
+
+    TransactionStatusClient(String envBase, String liveSalt, String appId) {
+        this.envBase = envBase;
+        this.liveSalt = liveSalt;
+        this.appId = appId;
+    }
+
+    /**
+     * Queue one lookup. It is sent together with every other lookup queued in the same window;
+     * while a lookup of the same id is queued or in flight, its future is returned instead.
+     *
+     * @throws IllegalStateException after {@link #shutdown}
+     */
+    public CompletableFuture<TransactionStatus> fetch(String merchantOrderId) {
+        synchronized (lock) {
+            if (shutdown) throw new IllegalStateException("TransactionStatusClient is shut down");
+            CompletableFuture<TransactionStatus> f = pending.get(merchantOrderId);
+            if (f == null) f = inFlight.get(merchantOrderId);
+            if (f != null) return f;
+            f = new CompletableFuture<>();
+            pending.put(merchantOrderId, f);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                SdkExecutors.schedule(this::flush, COALESCE_WINDOW_MS);
+            }
+            return f;
+        }
+    }
+
+    /**
+     * Blocking lookup of every id; the map holds one entry per distinct id, failures included
+     * as {@link TransactionStatus#isError()} entries.
+     */
+    public Map<String, TransactionStatus> fetchAll(Collection<String> merchantOrderIds) {
+        final List<String> ids = new ArrayList<>(new LinkedHashSet<>(merchantOrderIds));
+        final Map<String, TransactionStatus> out = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_BATCH_SIZE));
+            out.putAll(fetchChunk(chunk));
+        }
+        return out;
+    }
+
+    /** Refuse new {@link #fetch} calls; lookups already queued still complete. */
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+        }
+    }
+
+    private void flush() {
+        final Map<String, CompletableFuture<TransactionStatus>> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            flushScheduled = false;
+            inFlight.putAll(batch);
+        }
+        Map<String, TransactionStatus> res = null;
+        RuntimeException failure = null;
+        try {
+            res = fetchAll(batch.keySet());
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        // a lookup issued from here on starts a new request
+        synchronized (lock) {
+            for (Map.Entry<String, CompletableFuture<TransactionStatus>> e : batch.entrySet()) {
+                inFlight.remove(e.getKey(), e.getValue());
+            }
+        }
+        for (Map.Entry<String, CompletableFuture<TransactionStatus>> e : batch.entrySet()) {
+            if (failure != null) e.getValue().completeExceptionally(failure);
+            else e.getValue().complete(res.get(e.getKey()));
+        }
+    }
+
+    private Map<String, TransactionStatus> fetchChunk(List<String> ids) {
+        if (!batchUnsupported && ids.size() > 1) {
+            try {
+                return GurutvaPayApi.transactionStatusBatch(envBase, liveSalt, appId, ids);
+            } catch (GurutvaPayException e) {
+                int code = e.getHttpCode();
+                if (code == 404 || code == 405 || code == 501) {
+                    batchUnsupported = true;
+                } else {
+                    return errorsFor(ids, e.getMessage());
+                }
+            } catch (Exception e) {
+                return errorsFor(ids, e.getMessage());
+            }
+        }
+        return fetchEach(ids);
+    }
+
+    // fan out over the single-id endpoint: up to MAX_PARALLEL - 1 helpers on the shared executor
+    // plus the calling thread, all taking ids from one queue. The caller never waits for a helper
+    // that has not started, so a saturated executor cannot deadlock it; it just does more itself.
+    private Map<String, TransactionStatus> fetchEach(List<String> ids) {
+        final ConcurrentLinkedQueue<String> work = new ConcurrentLinkedQueue<>(ids);
+        final Map<String, TransactionStatus> out = new ConcurrentHashMap<>();
+        final CountDownLatch done = new CountDownLatch(ids.size());
+        final Runnable worker = () -> {
+            String id;
+            while ((id = work.poll()) != null) {
+                out.put(id, fetchSingle(id));
+                done.countDown();
+            }
+        };
+        for (int i = 1; i < Math.min(MAX_PARALLEL, ids.size()); i++) SdkExecutors.io().execute(worker);
+        worker.run();
+        try {
+            done.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            for (String id : ids) {
+                if (!out.containsKey(id)) out.put(id, TransactionStatus.error(id, "interrupted"));
+            }
+        }
+        return new HashMap<>(out);
+    }
+
+    private TransactionStatus fetchSingle(String merchantOrderId) {
+        try {
+            return GurutvaPayApi.transactionStatus(envBase, liveSalt, appId, merchantOrderId);
+        } catch (Exception e) {
+            return TransactionStatus.error(merchantOrderId, e.getMessage());
+        }
+    }
+
+    private static Map<String, TransactionStatus> errorsFor(List<String> ids, String message) {
+        Map<String, TransactionStatus> out = new HashMap<>();
+        for (String id : ids) out.put(id, TransactionStatus.error(id, message));
+        return out;
+    }
+}
@@ -0,0 +1,129 @@
+package com.gurutva.gurutvapay_sdk;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageManager;
+import android.net.Uri;
+import android.util.Log;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Which UPI / wallet schemes have an installed handler.
+ *
+ * PackageManager is queried once per scheme on a background thread and the answers are kept in
+ * an immutable map, so the launch path does a hash lookup instead of binder calls. The map is
+ * rebuilt when a package is added, removed or replaced, and when a wallet scheme is registered.
+ *
+ * Schemes the registry has not resolved yet are reported as unknown (null); the caller then
+ * simply tries the launch.
+ */
+final class UpiAppRegistry implements CheckoutController.Apps {
+    private static final String TAG = "UpiAppRegistry";
+
+    private static volatile UpiAppRegistry instance;
+
+    private final Context appContext;
+    // passes run one at a time so an older pass never overwrites a newer one
+    private final Executor resolver = SdkExecutors.serial();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    // scheme -> has a handler; replaced wholesale, never mutated, written only on resolver
+    private volatile Map<String, Boolean> launchable = Collections.emptyMap();
+
+    private UpiAppRegistry(Context appContext) {
+        this.appContext = appContext;
+    }
+
+    /** The process-wide registry; the first call registers for package changes and starts resolving. */
+    static UpiAppRegistry get(Context context) {
+        UpiAppRegistry r = instance;
+        if (r != null) return r;
+        synchronized (UpiAppRegistry.class) {
+            if (instance == null) {
+                r = new UpiAppRegistry(context.getApplicationContext());
+                r.listenForPackageChanges();
+                r.refresh();
+                instance = r;
+            }
+            return instance;
+        }
+    }
+
+    /** Re-resolve if the registry exists, e.g. after a wallet scheme was registered. */
+    static void invalidate() {
+        UpiAppRegistry r = instance;
+        if (r != null) r.refresh();
+    }
+
+    /**
+     * TRUE / FALSE once resolved, null while unknown.
+     *
+     * @param scheme as returned by {@link UrlSchemeMatcher#matchPrefix}
+     */
+    @Override
+    public Boolean isLaunchable(String scheme) {
+        return launchable.get(scheme);
+    }
+
+    /** The launch failed although the cached answer said otherwise (app removed meanwhile). */
+    @Override
+    public void markUnavailable(final String scheme) {
+        // on the resolver too, so this copy and a pass replacing the map cannot lose each other
+        resolver.execute(() -> {
+            Map<String, Boolean> next = new HashMap<>(launchable);
+            next.put(scheme, Boolean.FALSE);
+            launchable = Collections.unmodifiableMap(next);
+        });
+        refresh();
+    }
+
+    void refresh() {
+        // bursts of package broadcasts (installs, updates) collapse into one pass
+        if (refreshQueued.compareAndSet(false, true)) resolver.execute(this::resolveAll);
+    }
+
+    private void resolveAll() {
+        refreshQueued.set(false);
+        final PackageManager pm = appContext.getPackageManager();
+        final Map<String, Boolean> next = new HashMap<>();
+        for (String scheme : UrlSchemeMatcher.get().schemes()) {
+            // intent: names its own target; nothing to probe
+            if (UrlSchemeMatcher.INTENT.equals(scheme)) continue;
+            try {
+                Intent probe = new Intent(Intent.ACTION_VIEW, Uri.parse(probeUrl(scheme)));
+                next.put(scheme, !pm.queryIntentActivities(probe, PackageManager.MATCH_DEFAULT_ONLY).isEmpty());
+            } catch (RuntimeException e) {
+                // leave it unknown; the launcher will just try it
+                Log.w(TAG, "resolve failed for " + scheme, e);
+            }
+        }
+        launchable = Collections.unmodifiableMap(next);
+    }
+
+    private void listenForPackageChanges() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addDataScheme("package");
+        appContext.registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                refresh();
+            }
+        }, filter);
+    }
+
+    // the same URL shapes LaunchPlanner launches
+    static String probeUrl(String scheme) {
+        if (UrlSchemeMatcher.UPI.equals(scheme)) return "upi://pay";
+        if ("tez://".equals(scheme)) return "tez://upi/pay";
+        return scheme.endsWith("://") ? scheme + "pay" : scheme + "//pay";
+    }
+}
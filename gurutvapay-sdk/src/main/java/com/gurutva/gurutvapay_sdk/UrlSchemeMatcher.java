@@ -0,0 +1,138 @@
+package com.gurutva.gurutvapay_sdk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recognizes intent / UPI / wallet links without regexes or lower-cased copies of the input.
+ *
+ * Schemes are kept lower-case and indexed by first character, so both prefix checks and the
+ * search for a link inside free text are a single case-insensitive pass over the input.
+ * The registry starts with intent:, upi:, phonepe://, paytmmp:// and tez://;
+ * merchants add more through {@link GurutvaPay#registerWalletScheme}.
+ */
+final class UrlSchemeMatcher {
+    static final String INTENT = "intent:";
+    static final String UPI = "upi:";
+
+    private static final String[] DEFAULT_SCHEMES = {INTENT, UPI, "phonepe://", "paytmmp://", "tez://"};
+    private static final UrlSchemeMatcher INSTANCE = new UrlSchemeMatcher(DEFAULT_SCHEMES);
+
+    // copy-on-write; index = lower-case first char (ASCII only)
+    private volatile String[][] byFirstChar;
+
+    UrlSchemeMatcher(String... schemes) {
+        byFirstChar = index(Arrays.asList(schemes));
+    }
+
+    static UrlSchemeMatcher get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Add a scheme such as "bhim://" or "mobikwik:". Registering an existing scheme is a no-op.
+     */
+    synchronized void register(String scheme) {
+        final String s = normalize(scheme);
+        List<String> all = schemes();
+        if (all.contains(s)) return;
+        all.add(s);
+        byFirstChar = index(all);
+    }
+
+    /** Every registered scheme, lower-case. */
+    List<String> schemes() {
+        List<String> all = new ArrayList<>();
+        for (String[] bucket : byFirstChar) {
+            if (bucket != null) all.addAll(Arrays.asList(bucket));
+        }
+        return all;
+    }
+
+    /** The registered scheme url starts with (lower-case), or null. */
+    String matchPrefix(String url) {
+        if (url == null || url.isEmpty()) return null;
+        return schemeAt(url, 0);
+    }
+
+    boolean isIntentOrUpi(String url) {
+        return matchPrefix(url) != null;
+    }
+
+    /**
+     * First link in free text: a registered scheme followed by at least one character up to the
+     * next whitespace, quote or angle bracket. Null when the text holds no link.
+     */
+    String findFirst(String text) {
+        if (text == null) return null;
+        final int n = text.length();
+        for (int i = 0; i < n; i++) {
+            String scheme = schemeAt(text, i);
+            if (scheme == null) continue;
+            int end = i + scheme.length();
+            while (end < n && !isTerminator(text.charAt(end))) end++;
+            if (end > i + scheme.length()) return text.substring(i, end);
+        }
+        return null;
+    }
+
+    /** Literal (non-regex) equivalent of String.replaceFirst. */
+    static String replaceFirst(String s, String target, String replacement) {
+        int i = s.indexOf(target);
+        if (i < 0) return s;
+        return s.substring(0, i) + replacement + s.substring(i + target.length());
+    }
+
+    private String schemeAt(String s, int offset) {
+        final char c = s.charAt(offset);
+        final int key = c | 0x20;
+        if (c >= 128 || key >= 128) return null;
+        final String[] bucket = byFirstChar[key];
+        if (bucket == null) return null;
+        for (String scheme : bucket) {
+            if (s.regionMatches(true, offset, scheme, 0, scheme.length())) return scheme;
+        }
+        return null;
+    }
+
+    private static boolean isTerminator(char c) {
+        return c == '"' || c == '<' || c == '>' || Character.isWhitespace(c);
+    }
+
+    private static String[][] index(List<String> schemes) {
+        String[][] idx = new String[128][];
+        for (String s : schemes) {
+            int k = s.charAt(0);
+            String[] bucket = idx[k];
+            if (bucket == null) {
+                idx[k] = new String[]{s};
+            } else {
+                String[] grown = Arrays.copyOf(bucket, bucket.length + 1);
+                grown[bucket.length] = s;
+                // longest first, so "upi://x" style schemes win over a shorter shared prefix
+                Arrays.sort(grown, (a, b) -> b.length() - a.length());
+                idx[k] = grown;
+            }
+        }
+        return idx;
+    }
+
+    static String normalize(String scheme) {
+        if (scheme == null) throw new IllegalArgumentException("scheme is null");
+        String s = scheme.trim().toLowerCase(Locale.ROOT);
+        if (!s.endsWith(":") && !s.endsWith("://")) s = s + "://";
+        int colon = s.indexOf(':');
+        if (colon <= 0 || !Character.isLetter(s.charAt(0))) {
+            throw new IllegalArgumentException("invalid scheme: " + scheme);
+        }
+        for (int i = 1; i < colon; i++) {
+            char c = s.charAt(i);
+            if (c >= 128 || !(Character.isLetterOrDigit(c) || c == '+' || c == '-' || c == '.')) {
+                throw new IllegalArgumentException("invalid scheme: " + scheme);
+            }
+        }
+        return s;
+    }
+}
@@ -0,0 +1,191 @@
+package com.gurutva.gurutvapay_sdk;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Looper;
+import android.util.Log;
+import android.view.ViewGroup;
+import android.webkit.ConsoleMessage;
+import android.webkit.JavascriptInterface;
+import android.webkit.WebChromeClient;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+import android.webkit.WebViewClient;
+
+/**
+ * Opt-in pool holding one pre-configured payment WebView.
+ *
+ * {@link #preload} builds the WebView on a MutableContextWrapper(applicationContext) when the
+ * main thread goes idle, so Chromium startup happens off the checkout critical path.
+ * {@link #acquire} re-targets it at the activity; {@link #release} resets it and parks it again
+ * once about:blank has committed and the history is cleared.
+ * Without a preload call the pool just creates and destroys WebViews as before.
+ *
+ * All methods must be called on the main thread.
+ */
+final class WebViewPool {
+    private static final String TAG = "WebViewPool";
+    private static final String BLANK = "about:blank";
+
+    /** Receives the WebView callbacks of the activity currently holding the pooled view. */
+    interface Host {
+        boolean onOverrideUrl(String url);
+        void onPageFinished(String url);
+        void onLoadError(String description);
+        void onConsoleMessage(String message);
+        /** Called on the WebView's JavaBridge thread, not the main thread. */
+        void onBridgeMessage(String json);
+    }
+
+    private static boolean enabled;
+    private static boolean preloadScheduled;
+    private static PooledWebView idle;
+    // released view loading about:blank; becomes idle in onPageFinished
+    private static PooledWebView parking;
+
+    private WebViewPool() {}
+
+    static void preload(Context context) {
+        enabled = true;
+        if (idle != null || parking != null || preloadScheduled) return;
+        preloadScheduled = true;
+        final Context app = context.getApplicationContext();
+        Looper.myQueue().addIdleHandler(() -> {
+            preloadScheduled = false;
+            if (idle == null) {
+                try {
+                    idle = create(app);
+                } catch (RuntimeException e) {
+                    // WebView provider missing or updating; activity will create one on demand
+                    Log.w(TAG, "preload failed", e);
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * @param forRestore the caller will restoreState() into it; the idle WebView has already
+     *                   loaded about:blank, so a new one is created and the idle one kept
+     */
+    static WebView acquire(Context activity, Host host, boolean forRestore) {
+        PooledWebView wv = forRestore ? null : idle;
+        if (!forRestore) idle = null;
+        if (wv == null) {
+            wv = create(activity.getApplicationContext());
+        }
+        ((MutableContextWrapper) wv.getContext()).setBaseContext(activity);
+        wv.host = host;
+        return wv;
+    }
+
+    static void release(WebView webView) {
+        if (!(webView instanceof PooledWebView)) return;
+        final PooledWebView wv = (PooledWebView) webView;
+        wv.host = null;
+        if (wv.getParent() instanceof ViewGroup) {
+            ((ViewGroup) wv.getParent()).removeView(wv);
+        }
+        wv.stopLoading();
+        ((MutableContextWrapper) wv.getContext()).setBaseContext(wv.getContext().getApplicationContext());
+
+        if (enabled && idle == null && parking == null) {
+            // clearHistory() before about:blank commits would keep the payment page in the back list
+            parking = wv;
+            wv.loadUrl(BLANK);
+        } else {
+            wv.destroy();
+        }
+    }
+
+    private static void park(PooledWebView wv) {
+        parking = null;
+        wv.clearHistory();
+        if (enabled && idle == null) {
+            idle = wv;
+        } else {
+            wv.destroy();
+        }
+    }
+
+    @SuppressLint({"SetJavaScriptEnabled", "AddJavascriptInterface"})
+    private static PooledWebView create(Context appContext) {
+        final PooledWebView wv = new PooledWebView(new MutableContextWrapper(appContext));
+        WebSettings s = wv.getSettings();
+        s.setJavaScriptEnabled(true);
+        s.setDomStorageEnabled(true);
+        s.setJavaScriptCanOpenWindowsAutomatically(true);
+        s.setSupportMultipleWindows(true);
+        s.setMixedContentMode(WebSettings.MIXED_CONTENT_COMPATIBILITY_MODE);
+        s.setLoadsImagesAutomatically(true);
+
+        wv.addJavascriptInterface(new BridgeRelay(wv), "AndroidBridge");
+
+        wv.setWebChromeClient(new WebChromeClient() {
+            @Override
+            public boolean onConsoleMessage(ConsoleMessage consoleMessage) {
+                Host h = wv.host;
+                if (h != null) h.onConsoleMessage(consoleMessage.message());
+                return super.onConsoleMessage(consoleMessage);
+            }
+        });
+
+        wv.setWebViewClient(new WebViewClient() {
+            @Override
+            public boolean shouldOverrideUrlLoading(WebView view, WebResourceRequest request) {
+                Host h = wv.host;
+                return h != null && h.onOverrideUrl(request.getUrl().toString());
+            }
+
+            @Override
+            public void onPageFinished(WebView view, String url) {
+                if (parking == wv) {
+                    if (BLANK.equals(url)) park(wv);
+                    return;
+                }
+                Host h = wv.host;
+                if (h != null) h.onPageFinished(url);
+            }
+
+            @Override
+            public void onReceivedError(WebView view, WebResourceRequest request, android.webkit.WebResourceError error) {
+                if (parking == wv) {
+                    // could not reset it; not worth keeping
+                    parking = null;
+                    wv.destroy();
+                    return;
+                }
+                Host h = wv.host;
+                if (h != null) h.onLoadError(String.valueOf(error.getDescription()));
+            }
+        });
+        return wv;
+    }
+
+    private static final class PooledWebView extends WebView {
+        volatile Host host;
+
+        PooledWebView(Context context) {
+            super(context);
+        }
+    }
+
+    /**
+     * Exposed to JS as AndroidBridge.onMessage(jsonString); forwards to the current host.
+     */
+    private static final class BridgeRelay {
+        private final PooledWebView owner;
+
+        BridgeRelay(PooledWebView owner) {
+            this.owner = owner;
+        }
+
+        @JavascriptInterface
+        public void onMessage(String json) {
+            Host h = owner.host;
+            if (h != null) h.onBridgeMessage(json);
+        }
+    }
+}
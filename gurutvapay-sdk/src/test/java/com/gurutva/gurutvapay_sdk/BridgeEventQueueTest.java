@@ -0,0 +1,121 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+public class BridgeEventQueueTest {
+
+    // stands in for the main looper: runs posted tasks only when asked
+    private static final class ManualLooper implements Executor {
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public synchronized void execute(Runnable r) {
+            tasks.add(r);
+        }
+
+        void runAll() {
+            Runnable r;
+            while ((r = poll()) != null) r.run();
+        }
+
+        private synchronized Runnable poll() {
+            return tasks.poll();
+        }
+    }
+
+    private static final class RecordingSink implements BridgeMessageDispatcher.Sink {
+        final List<String> events = new ArrayList<>();
+        Thread thread;
+
+        @Override
+        public void onSuccess(String transactionId, String merchantOrderId, String orderId) {
+            record("success:" + transactionId);
+        }
+
+        @Override
+        public void onFailure(String error) {
+            record("failure:" + error);
+        }
+
+        @Override
+        public void onPending() {
+            record("pending");
+        }
+
+        @Override
+        public void onIntent(String url, String appHint) {
+            record("intent:" + url);
+        }
+
+        private void record(String e) {
+            thread = Thread.currentThread();
+            events.add(e);
+        }
+    }
+
+    @Test
+    public void deliversInOrderWithOneDrainTask() {
+        ManualLooper looper = new ManualLooper();
+        RecordingSink sink = new RecordingSink();
+        BridgeEventQueue q = new BridgeEventQueue(looper, sink);
+
+        q.onPending();
+        q.onIntent("upi://pay?pa=a@b", null);
+        q.onPending();
+        assertEquals(1, looper.tasks.size());
+        assertTrue(sink.events.isEmpty());
+
+        looper.runAll();
+        assertEquals(3, sink.events.size());
+        assertEquals("pending", sink.events.get(0));
+        assertEquals("intent:upi://pay?pa=a@b", sink.events.get(1));
+        assertEquals("pending", sink.events.get(2));
+    }
+
+    @Test
+    public void terminalEventDiscardsEverythingAfterIt() {
+        ManualLooper looper = new ManualLooper();
+        RecordingSink sink = new RecordingSink();
+        BridgeEventQueue q = new BridgeEventQueue(looper, sink);
+
+        q.onSuccess("T1", "MO1", "O1");
+        q.onFailure("late");
+        q.onIntent("upi://pay", null);
+        looper.runAll();
+        q.onSuccess("T2", "MO1", "O1");
+        looper.runAll();
+
+        assertEquals(1, sink.events.size());
+        assertEquals("success:T1", sink.events.get(0));
+        assertTrue(q.isClosed());
+    }
+
+    @Test
+    public void producersOnOtherThreadsDeliverOnTheConsumer() throws Exception {
+        ManualLooper looper = new ManualLooper();
+        RecordingSink sink = new RecordingSink();
+        final BridgeEventQueue q = new BridgeEventQueue(looper, sink);
+
+        final int threads = 4, perThread = 250;
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) q.onPending();
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        looper.runAll();
+
+        assertEquals(threads * perThread, sink.events.size());
+        assertSame(Thread.currentThread(), sink.thread);
+    }
+}
@@ -0,0 +1,78 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BridgeMessageDispatcherTest {
+
+    private final List<String> events = new ArrayList<>();
+    private final BridgeMessageDispatcher dispatcher = new BridgeMessageDispatcher(new BridgeMessageDispatcher.Sink() {
+        @Override public void onSuccess(String transactionId, String merchantOrderId, String orderId) {
+            events.add("success " + transactionId + " " + merchantOrderId + " " + orderId);
+        }
+        @Override public void onFailure(String error) { events.add("failure " + error); }
+        @Override public void onPending() { events.add("pending"); }
+        @Override public void onIntent(String url, String appHint) { events.add("intent " + url + " " + appHint); }
+    });
+
+    @Test
+    public void dropsChatterWithoutParsing() {
+        dispatcher.dispatchBridgeMessage("{\"kind\":\"log\",\"payload\":\"render took 12ms\"}");
+        dispatcher.dispatchConsoleMessage("{ not json at all");
+        assertTrue(events.isEmpty());
+        assertEquals(2, dispatcher.droppedCount());
+        assertEquals(0, dispatcher.handledCount());
+    }
+
+    @Test
+    public void statusObjectInsideBridgeWrapper() {
+        dispatcher.dispatchBridgeMessage("{\"kind\":\"postMessage\",\"payload\":"
+                + "\"{\\\"status\\\":\\\"SUCCESS\\\",\\\"merchantOrderId\\\":\\\"MO1\\\",\\\"transactionId\\\":\\\"T9\\\"}\"}");
+        assertEquals("success T9 MO1 null", events.get(0));
+        assertEquals(1, dispatcher.handledCount());
+    }
+
+    @Test
+    public void failureFallsBackToDefaultError() {
+        dispatcher.dispatchConsoleMessage("{\"status\":\"failed\"}");
+        assertEquals("failure payment failed", events.get(0));
+    }
+
+    @Test
+    public void malformedObjectsAreTreatedAsText() {
+        dispatcher.dispatchConsoleMessage("{\"status\":\"success\"");
+        dispatcher.dispatchConsoleMessage("{status: success}");
+        dispatcher.dispatchConsoleMessage("{\"status\":\"bad \\q escape\"}");
+        dispatcher.dispatchConsoleMessage("{ redirecting to upi://pay?pa=x@y");
+        dispatcher.dispatchBridgeMessage("{\"kind\":\"log\",\"payload\":\"status ok\"");
+        assertEquals(1, events.size());
+        assertEquals("intent upi://pay?pa=x@y null", events.get(0));
+        assertEquals(1, dispatcher.handledCount());
+        assertEquals(4, dispatcher.droppedCount());
+    }
+
+    @Test
+    public void failureStatusContainingSuccessIsAFailure() {
+        dispatcher.dispatchConsoleMessage("{\"status\":\"UNSUCCESSFUL\",\"error\":\"declined\"}");
+        assertEquals("failure declined", events.get(0));
+    }
+
+    @Test
+    public void upiIntentObjectAndPlainTextLink() {
+        dispatcher.dispatchConsoleMessage("{\"kind\":\"upi_intent\",\"payload\":{\"url\":\"upi://pay?pa=x@y\",\"app\":\"phonepe\"}}");
+        dispatcher.dispatchConsoleMessage("opening UPI://pay?pa=a@b&am=1 now");
+        assertEquals("intent upi://pay?pa=x@y phonepe", events.get(0));
+        assertEquals("intent UPI://pay?pa=a@b&am=1 null", events.get(1));
+    }
+
+    @Test
+    public void jsonWithoutActionableFieldsIsNotScannedForLinks() {
+        dispatcher.dispatchConsoleMessage("{\"status\":\"created\",\"note\":\"upi://pay?pa=x@y\"}");
+        assertTrue(events.isEmpty());
+        assertEquals(1, dispatcher.droppedCount());
+    }
+}
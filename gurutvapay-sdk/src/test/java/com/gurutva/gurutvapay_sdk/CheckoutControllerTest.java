@@ -0,0 +1,195 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CheckoutControllerTest {
+
+    private static final class RecordingHost implements CheckoutController.Host {
+        final List<String> calls = new ArrayList<>();
+        final List<CheckoutController.Launch> launches = new ArrayList<>();
+        final List<CheckoutResult> results = new ArrayList<>();
+        // launches to succeed, by URL prefix; everything else has no handler
+        final List<String> handled = new ArrayList<>();
+
+        @Override public void onProgress(String message) { calls.add("progress " + message); }
+        @Override public void onSessionError(String message) { calls.add("error " + message); }
+        @Override public void loadPage(String paymentUrl) { calls.add("load " + paymentUrl); }
+        @Override public void onPending() { calls.add("pending"); }
+        @Override public void onResult(CheckoutResult result) { results.add(result); }
+
+        @Override
+        public boolean launch(CheckoutController.Launch launch) {
+            launches.add(launch);
+            for (String prefix : handled) if (launch.url.startsWith(prefix)) return true;
+            return false;
+        }
+    }
+
+    private static final class FakeApps implements CheckoutController.Apps {
+        final Map<String, Boolean> launchable = new HashMap<>();
+        final List<String> marked = new ArrayList<>();
+
+        @Override public Boolean isLaunchable(String scheme) { return launchable.get(scheme); }
+        @Override public void markUnavailable(String scheme) { marked.add(scheme); }
+    }
+
+    private final RecordingHost host = new RecordingHost();
+    private final FakeApps apps = new FakeApps();
+    private final CheckoutController controller =
+            new CheckoutController("test.app", host, Runnable::run, apps, UrlSchemeMatcher.get());
+
+    private static PaymentSession registered(String id, String paymentUrl) {
+        final PaymentSession s = new PaymentSession(id, "salt", "{}", "http://localhost", 60_000);
+        if (paymentUrl != null) s.resolve(paymentUrl);
+        PaymentSessions.register(s);
+        return s;
+    }
+
+    @Test
+    public void resumeLoadsResolvedSession() {
+        registered("ready", "https://pay.example/p/1");
+        assertTrue(controller.resume("ready"));
+        assertEquals("ready", controller.sessionId());
+        assertEquals("load https://pay.example/p/1", host.calls.get(host.calls.size() - 1));
+        // consumed: a second checkout cannot take it
+        assertFalse(controller.resume("ready"));
+    }
+
+    @Test
+    public void resumeWaitsForPendingSession() {
+        final PaymentSession s = registered("pending", null);
+        assertTrue(controller.resume("pending"));
+        assertEquals("progress " + CheckoutController.CREATING_SESSION, host.calls.get(0));
+        s.fail("HTTP 500");
+        assertEquals("error HTTP 500", host.calls.get(1));
+    }
+
+    @Test
+    public void resumeRejectsUnknownOrFailedSession() {
+        registered("failed", null).fail("boom");
+        assertFalse(controller.resume("failed"));
+        assertFalse(controller.resume("missing"));
+        assertFalse(controller.resume(null));
+        assertTrue(host.calls.isEmpty());
+    }
+
+    @Test
+    public void onlyFirstResultIsDelivered() {
+        controller.onConsoleMessage("{\"status\":\"SUCCESS\",\"transactionId\":\"T1\",\"merchantOrderId\":\"MO1\"}");
+        controller.onConsoleMessage("{\"status\":\"failed\"}");
+        controller.onConsoleMessage("{\"status\":\"pending\"}");
+        assertEquals(1, host.results.size());
+        assertTrue(host.results.get(0).success);
+        assertEquals("T1", host.results.get(0).transactionId);
+        assertTrue(controller.isFinished());
+        assertFalse(host.calls.contains("pending"));
+    }
+
+    @Test
+    public void statusOnlySuccessNamesThePreparedOrder() {
+        final PaymentSession s = new PaymentSession("typed", "salt", null,
+                OrderPayload.builder("MO42", 100).build(), "http://localhost", 60_000);
+        s.resolve("https://pay.example/p/42");
+        PaymentSessions.register(s);
+        controller.resume("typed");
+        controller.onConsoleMessage("{\"status\":\"success\"}");
+        assertEquals("MO42", host.results.get(0).merchantOrderId);
+        assertNull(host.results.get(0).transactionId);
+    }
+
+    @Test
+    public void statusOnlySuccessNamesTheJsonOrder() {
+        final PaymentSession s = new PaymentSession("json", "salt",
+                "{\"amount\":100,\"merchantOrderId\":\"MO43\"}", "http://localhost", 60_000);
+        s.resolve("https://pay.example/p/43");
+        PaymentSessions.register(s);
+        controller.resume("json");
+        controller.onConsoleMessage("{\"status\":\"success\"}");
+        assertEquals("MO43", host.results.get(0).merchantOrderId);
+    }
+
+    @Test
+    public void repeatedPendingReachesHostOnce() {
+        registered("p", "https://pay.example/p/2");
+        controller.resume("p");
+        controller.onPageFinished();
+        controller.onConsoleMessage("{\"status\":\"pending\"}");
+        controller.onConsoleMessage("{\"status\":\"PENDING\"}");
+        assertEquals(1, host.calls.stream().filter("pending"::equals).count());
+        assertEquals(CheckoutState.PENDING, controller.state());
+    }
+
+    @Test
+    public void eventLogReplaysToSameState() {
+        host.handled.add("upi:");
+        registered("log", "https://pay.example/p/3");
+        controller.resume("log");
+        controller.onPageFinished();
+        controller.onNavigation("upi://pay?pa=x@y");
+        controller.onForeground();
+        controller.onConsoleMessage("{\"status\":\"SUCCESS\",\"transactionId\":\"T3\"}");
+
+        final List<CheckoutEvent> log = controller.events();
+        final List<CheckoutEvent.Type> types = new ArrayList<>();
+        for (CheckoutEvent e : log) types.add(e.type);
+        assertEquals(Arrays.asList(CheckoutEvent.Type.SESSION_STARTED, CheckoutEvent.Type.SESSION_READY,
+                CheckoutEvent.Type.PAGE_LOADED, CheckoutEvent.Type.APP_HANDED_OFF, CheckoutEvent.Type.RETURNED,
+                CheckoutEvent.Type.SUCCEEDED), types);
+        final CheckoutStateMachine replayed = CheckoutStateMachine.replay(log);
+        assertEquals(CheckoutState.SUCCEEDED, replayed.state());
+        assertEquals("T3", replayed.result().transactionId);
+    }
+
+    @Test
+    public void upiLinkTriesVariantsInOrder() {
+        apps.launchable.put("phonepe://", false);
+        host.handled.add("tez://");
+
+        assertTrue(controller.onNavigation("upi://pay?pa=x@y&am=1"));
+
+        final List<String> tried = new ArrayList<>();
+        for (CheckoutController.Launch l : host.launches) tried.add(l.url);
+        // phonepe is known to be missing and skipped without a launch attempt
+        assertEquals(Arrays.asList(
+                "upi://pay?pa=x@y&am=1", "paytmmp://pay?pa=x@y&am=1", "tez://upi/pay?pa=x@y&am=1"), tried);
+        assertEquals(Arrays.asList("upi:", "paytmmp://"), apps.marked);
+    }
+
+    @Test
+    public void appHintLaunchesOnlyThatApp() {
+        controller.onConsoleMessage("{\"kind\":\"upi_intent\",\"payload\":{\"url\":\"upi://pay?pa=x@y\",\"app\":\"PhonePe\"}}");
+        assertEquals(1, host.launches.size());
+        assertEquals("phonepe://pay?pa=x@y", host.launches.get(0).url);
+    }
+
+    @Test
+    public void sameLinkIsLaunchedOnce() {
+        host.handled.add("upi:");
+        controller.onNavigation("upi://pay?pa=x@y");
+        controller.onConsoleMessage("upi://pay?pa=x@y");
+        assertEquals(1, host.launches.size());
+    }
+
+    @Test
+    public void linkThatCouldNotBeOpenedCanBeTriedAgain() {
+        controller.onNavigation("phonepe://pay?pa=x@y");
+        assertEquals(2, host.launches.size());
+        host.handled.add("phonepe://");
+        controller.onNavigation("phonepe://pay?pa=x@y");
+        assertEquals(3, host.launches.size());
+    }
+
+    @Test
+    public void webLinksAreLeftToTheHost() {
+        assertFalse(controller.onNavigation("https://pay.example/p/1/next"));
+        assertTrue(host.launches.isEmpty());
+    }
+}
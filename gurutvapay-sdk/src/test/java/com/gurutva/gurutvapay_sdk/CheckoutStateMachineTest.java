@@ -0,0 +1,101 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.gurutva.gurutvapay_sdk.CheckoutEvent.Type.*;
+import static org.junit.Assert.*;
+
+public class CheckoutStateMachineTest {
+
+    private long now;
+    private final CheckoutStateMachine machine = new CheckoutStateMachine(() -> now);
+
+    private boolean apply(CheckoutEvent.Type type) {
+        return machine.apply(CheckoutEvent.of(type, null));
+    }
+
+    @Test
+    public void happyPath() {
+        assertFalse(apply(SESSION_STARTED));
+        assertTrue(apply(SESSION_READY));
+        assertEquals(CheckoutState.INITIATED, machine.state());
+        assertTrue(apply(PAGE_LOADED));
+        assertTrue(apply(APP_HANDED_OFF));
+        assertFalse(apply(RETURNED));
+        assertTrue(apply(PENDING));
+        assertTrue(machine.apply(CheckoutEvent.result(CheckoutResult.success("T1", "MO1", null))));
+        assertEquals(CheckoutState.SUCCEEDED, machine.state());
+        assertEquals("T1", machine.result().transactionId);
+    }
+
+    @Test
+    public void terminalStatesIgnoreLaterEvents() {
+        apply(SESSION_READY);
+        assertTrue(machine.apply(CheckoutEvent.result(CheckoutResult.failure("declined"))));
+        assertFalse(machine.apply(CheckoutEvent.result(CheckoutResult.success("T1", null, null))));
+        assertFalse(apply(PENDING));
+        assertFalse(apply(APP_HANDED_OFF));
+        assertEquals(CheckoutState.FAILED, machine.state());
+        assertEquals("declined", machine.result().error);
+        // still recorded, for the trace
+        assertEquals(5, machine.events().size());
+    }
+
+    @Test
+    public void flowDoesNotGoBack() {
+        apply(SESSION_READY);
+        apply(APP_HANDED_OFF);
+        assertFalse(apply(PAGE_LOADED));
+        assertFalse(apply(SESSION_READY));
+        assertEquals(CheckoutState.APP_HANDED_OFF, machine.state());
+        // the user tries another app after a pending report
+        apply(PENDING);
+        assertFalse(apply(PENDING));
+        assertTrue(apply(APP_HANDED_OFF));
+    }
+
+    @Test
+    public void sessionFailureKeepsCheckoutOpen() {
+        apply(SESSION_STARTED);
+        assertFalse(machine.apply(CheckoutEvent.of(SESSION_FAILED, "HTTP 500")));
+        assertEquals(CheckoutState.CREATED, machine.state());
+        assertFalse(apply(PAGE_LOADED));
+        assertTrue(apply(SESSION_READY));
+    }
+
+    @Test
+    public void replayReachesSameStatesWithSameTimes() {
+        apply(SESSION_STARTED);
+        now = 40;
+        machine.apply(CheckoutEvent.of(SESSION_READY, "https://pay.example/p/1"));
+        now = 900;
+        apply(PAGE_LOADED);
+        now = 1200;
+        machine.apply(CheckoutEvent.of(APP_HANDED_OFF, "upi:"));
+        apply(PENDING);
+        now = 9000;
+        machine.apply(CheckoutEvent.result(CheckoutResult.success("T1", "MO1", null)));
+        machine.apply(CheckoutEvent.result(CheckoutResult.failure("late")));
+
+        final List<CheckoutEvent> log = machine.events();
+        final CheckoutStateMachine replayed = CheckoutStateMachine.replay(log);
+        assertEquals(machine.state(), replayed.state());
+        assertEquals(log, replayed.events());
+        assertSame(machine.result(), replayed.result());
+        assertEquals(900, log.get(2).atMillis);
+        assertEquals("+1200ms APP_HANDED_OFF upi:", log.get(3).toString());
+    }
+
+    @Test
+    public void logKeepsStateChangesPastTheCap() {
+        apply(SESSION_READY);
+        for (int i = 0; i < CheckoutStateMachine.MAX_EVENTS * 2; i++) apply(PAGE_LOADED);
+        machine.apply(CheckoutEvent.result(CheckoutResult.failure("timeout")));
+
+        final List<CheckoutEvent> log = machine.events();
+        assertEquals(CheckoutStateMachine.MAX_EVENTS + 1, log.size());
+        assertEquals(CheckoutState.FAILED, CheckoutStateMachine.replay(log).state());
+    }
+}
@@ -0,0 +1,146 @@
+package com.gurutva.gurutvapay_sdk;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+
+import static org.junit.Assert.*;
+
+public class ConnectionWarmerTest {
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    private File keystore;
+    private HttpsServer server;
+    private SSLContext clientTls;
+    private String base;
+
+    // self-signed certificate for 127.0.0.1, made with the JDK's keytool
+    private static File createKeystore() throws Exception {
+        File ks = File.createTempFile("gurutvapay-tls", ".p12");
+        assertTrue(ks.delete());
+        String keytool = new File(System.getProperty("java.home"), "bin/keytool").getPath();
+        Process p = new ProcessBuilder(keytool, "-genkeypair", "-alias", "test", "-keyalg", "RSA",
+                "-keysize", "2048", "-validity", "2", "-dname", "CN=localhost", "-ext", "san=ip:127.0.0.1",
+                "-storetype", "PKCS12", "-keystore", ks.getPath(), "-storepass", new String(PASSWORD))
+                .redirectErrorStream(true).start();
+        try (InputStream out = p.getInputStream()) {
+            while (out.read() != -1) {
+                // keytool is chatty
+            }
+        }
+        assertEquals(0, p.waitFor());
+        return ks;
+    }
+
+    @Before
+    public void startServer() throws Exception {
+        keystore = createKeystore();
+        KeyStore ks = KeyStore.getInstance("PKCS12");
+        try (FileInputStream in = new FileInputStream(keystore)) {
+            ks.load(in, PASSWORD);
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(ks, PASSWORD);
+        SSLContext serverTls = SSLContext.getInstance("TLS");
+        serverTls.init(kmf.getKeyManagers(), null, null);
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(ks);
+        clientTls = SSLContext.getInstance("TLS");
+        clientTls.init(null, tmf.getTrustManagers(), null);
+
+        server = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(serverTls));
+        server.createContext("/live", ex -> {
+            try (InputStream in = ex.getRequestBody()) {
+                while (in.read() != -1) {
+                    // discard
+                }
+            }
+            if ("HEAD".equals(ex.getRequestMethod())) {
+                ex.sendResponseHeaders(200, -1);
+                ex.close();
+                return;
+            }
+            byte[] body = "{\"payment_url\":\"https://pay/1\"}".getBytes(StandardCharsets.UTF_8);
+            ex.sendResponseHeaders(200, body.length);
+            try (OutputStream os = ex.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        base = "https://127.0.0.1:" + server.getAddress().getPort() + "/live";
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        assertTrue(keystore.delete());
+    }
+
+    private String initiate(HttpTransport t) throws Exception {
+        return t.post(GurutvaPayApi.endpoint(base, "initiate-payment-android"), new HashMap<>(),
+                "{}".getBytes(StandardCharsets.UTF_8), 5_000, 1024, (code, in) -> {
+                    assertEquals(200, code);
+                    return HttpTransport.readText(in, 1024);
+                });
+    }
+
+    @Test
+    public void coldInitiatePaysTheHandshake() throws Exception {
+        HttpTransport t = new HttpTransport(clientTls);
+        initiate(t);
+        assertEquals(1, t.tlsHandshakes());
+    }
+
+    @Test
+    public void initiateAfterWarmUpReusesTheConnection() throws Exception {
+        HttpTransport t = new HttpTransport(clientTls);
+        ConnectionWarmer w = new ConnectionWarmer(t, new DnsCache());
+        assertEquals(1, w.warmNow(GurutvaPayApi.endpoint(base, "")));
+        assertEquals(1, t.tlsHandshakes());
+
+        assertTrue(initiate(t).contains("payment_url"));
+        assertTrue(initiate(t).contains("payment_url"));
+        assertEquals(1, t.tlsHandshakes());
+    }
+
+    @Test
+    public void dnsResultsAreKeptForTheTtl() throws Exception {
+        final AtomicInteger lookups = new AtomicInteger();
+        final AtomicLong now = new AtomicLong(1_000);
+        DnsCache dns = new DnsCache(host -> {
+            lookups.incrementAndGet();
+            return new InetAddress[]{InetAddress.getByAddress(host, new byte[]{10, 0, 0, 1})};
+        }, 60_000, now::get);
+        ConnectionWarmer w = new ConnectionWarmer(new HttpTransport(clientTls), dns);
+
+        assertEquals(1, w.warmNow(null, "https://pay.example.com/p/1"));
+        assertEquals(0, w.warmNow(null, "https://pay.example.com/p/2"));
+        assertEquals(1, lookups.get());
+
+        now.addAndGet(60_000);
+        assertFalse(dns.isFresh("pay.example.com"));
+        assertEquals(1, w.warmNow(null, "https://pay.example.com/p/3"));
+        assertEquals(2, lookups.get());
+    }
+}
@@ -0,0 +1,130 @@
+package com.gurutva.gurutvapay_sdk;
+
+import com.gurutva.gurutvapay_sdk.testing.MockGurutvaPayServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+public class HttpTransportTest {
+
+    private MockGurutvaPayServer server;
+    private String base;
+
+    @Before
+    public void startServer() throws IOException {
+        start(MockGurutvaPayServer.builder());
+    }
+
+    private void start(MockGurutvaPayServer.Builder b) throws IOException {
+        if (server != null) server.close();
+        server = b.start();
+        base = server.baseUrl();
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    private static OrderPayload bigOrder() {
+        OrderPayload.Builder b = OrderPayload.builder("ORD42", 12_345)
+                .customer("Asha \"A\" Rao", "asha@example.com", "9999999999", "12 MG Road\nBengaluru", null);
+        for (int i = 0; i < 60; i++) b.addItem("item " + i, i + 1, 100 + i);
+        return b.build();
+    }
+
+    private String echo(OrderPayload order) throws Exception {
+        return HttpTransport.get().postStream(base + "/" + MockGurutvaPayServer.ECHO, new HashMap<>(), new HttpTransport.RequestBody() {
+            @Override public long sizeHint() { return order.sizeHint(); }
+            @Override public long contentLength() { return -1; }
+            @Override public void writeTo(OutputStream out) throws IOException { order.writeTo(out); }
+        }, 5_000, 1 << 20, (code, in) -> {
+            assertEquals(200, code);
+            return HttpTransport.readText(in, 1 << 20);
+        });
+    }
+
+    @Test
+    public void largeBodiesAreGzippedBothWays() throws Exception {
+        OrderPayload order = bigOrder();
+        assertTrue(order.sizeHint() >= HttpTransport.GZIP_MIN_BYTES);
+        assertEquals(order.toJson(), echo(order));
+        assertEquals(Collections.singletonList("gzip"), server.requestEncodings());
+    }
+
+    @Test
+    public void smallBodiesAreSentPlain() throws Exception {
+        OrderPayload order = OrderPayload.builder("ORD1", 10).build();
+        assertEquals("{\"amount\":10,\"merchantOrderId\":\"ORD1\",\"channel\":\"android\"}", echo(order));
+        assertEquals(Collections.singletonList("identity"), server.requestEncodings());
+    }
+
+    @Test
+    public void hostRejectingGzipGetsPlainBodies() throws Exception {
+        start(MockGurutvaPayServer.builder().rejectGzipRequests());
+        // the host is remembered process-wide, so use a name no other test posts to
+        base = "http://localhost:" + server.port();
+        OrderPayload order = bigOrder();
+        assertEquals(order.toJson(), echo(order));
+        assertEquals(order.toJson(), echo(order));
+        assertEquals(Arrays.asList("gzip", "identity", "identity"), server.requestEncodings());
+    }
+
+    @Test
+    public void largeErrorPageKeepsItsStatus() throws Exception {
+        // a proxy's error page, larger than any API response we accept
+        start(MockGurutvaPayServer.builder().errorRate(1).retryAfterSeconds(2).errorBodyPadding(256 * 1024));
+        try {
+            GurutvaPayApi.transactionStatus(base, "salt", "app", "MO1");
+            fail();
+        } catch (GurutvaPayException e) {
+            assertEquals(503, e.getHttpCode());
+            assertEquals(2_000, e.getRetryAfterMs());
+            assertTrue(e.getMessage(), e.getMessage().startsWith("HTTP 503 - <html><body>xxx"));
+            assertTrue(InitiateCall.isTransient(e));
+        }
+    }
+
+    @Test
+    public void orderJsonIsEscapedAndReadable() throws Exception {
+        OrderPayload order = bigOrder();
+        JsonPullReader r = new JsonPullReader(order.toJson());
+        r.beginObject();
+        String buyer = null, address = null;
+        int items = 0;
+        while (r.hasNext()) {
+            String name = r.nextName();
+            if (name.equals("customer")) {
+                r.beginObject();
+                while (r.hasNext()) {
+                    String f = r.nextName();
+                    if (f.equals("buyer_name")) buyer = r.nextString();
+                    else if (f.equals("address1")) address = r.nextString();
+                    else r.skipValue();
+                }
+                r.endObject();
+            } else if (name.equals("items")) {
+                r.beginArray();
+                while (r.hasNext()) {
+                    r.skipValue();
+                    items++;
+                }
+                r.endArray();
+            } else {
+                r.skipValue();
+            }
+        }
+        assertEquals("Asha \"A\" Rao", buyer);
+        assertEquals("12 MG Road\nBengaluru", address);
+        assertEquals(60, items);
+    }
+}
@@ -0,0 +1,156 @@
+package com.gurutva.gurutvapay_sdk;
+
+import com.gurutva.gurutvapay_sdk.testing.MockGurutvaPayServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class InitiateCallTest {
+
+    private MockGurutvaPayServer server;
+    private String base;
+
+    @Before
+    public void startServer() throws IOException {
+        server = MockGurutvaPayServer.builder().start();
+        base = server.baseUrl();
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+        CheckoutTrace.setListener(null);
+    }
+
+    private static final class Outcome implements PaymentSession.Callback {
+        String url;
+        String error;
+
+        @Override public void onReady(String paymentUrl) { url = paymentUrl; }
+        @Override public void onError(String message) { error = message; }
+    }
+
+    private InitiateCall call(PaymentSession s, List<Long> delays) {
+        final String json = "{\"merchantOrderId\":\"ORD1\",\"amount\":10}";
+        final String key = InitiateCall.idempotencyKey("app", json);
+        return new InitiateCall(s, () -> GurutvaPayApi.initiatePayment(base, "salt", "app", json, key),
+                (attempt, delayMs) -> {
+                    delays.add(delayMs);
+                    attempt.run();
+                }, new Random(1));
+    }
+
+    @Test
+    public void transientFailuresAreRetriedWithTheSameKey() {
+        server.failNext(503, -1);
+        server.failNext(429, 2);
+        PaymentSession s = new PaymentSession("s", "salt", null, base, 60_000);
+        Outcome o = new Outcome();
+        s.whenResolved(o);
+        List<Long> delays = new ArrayList<>();
+        InitiateCall c = call(s, delays);
+        c.run();
+
+        assertTrue(o.url, o.url.startsWith(base + "/pay/"));
+        assertEquals(3, c.attempts());
+        long first = delays.get(0);
+        assertTrue("backoff " + first, first >= 400 && first <= 600);
+        assertEquals(2_000L, (long) delays.get(1));
+        List<String> keys = server.idempotencyKeys();
+        assertEquals(3, keys.size());
+        assertNotNull(keys.get(0));
+        assertEquals(keys.get(0), keys.get(1));
+        assertEquals(keys.get(0), keys.get(2));
+    }
+
+    @Test
+    public void clientErrorsAndLongRetryAfterAreNotRetried() {
+        server.failNext(400, -1);
+        PaymentSession s = new PaymentSession("s", "salt", null, base, 60_000);
+        Outcome o = new Outcome();
+        s.whenResolved(o);
+        InitiateCall c = call(s, new ArrayList<>());
+        c.run();
+        assertEquals(1, c.attempts());
+        assertTrue(o.error.startsWith("HTTP 400"));
+
+        server.failNext(503, 3600);
+        s = new PaymentSession("s2", "salt", null, base, 60_000);
+        o = new Outcome();
+        s.whenResolved(o);
+        c = call(s, new ArrayList<>());
+        c.run();
+        assertEquals(1, c.attempts());
+        assertNotNull(o.error);
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() {
+        for (int i = 0; i < 10; i++) server.failNext(502, -1);
+        PaymentSession s = new PaymentSession("s", "salt", null, base, 60_000);
+        Outcome o = new Outcome();
+        s.whenResolved(o);
+        List<Long> delays = new ArrayList<>();
+        InitiateCall c = call(s, delays);
+        c.run();
+        assertEquals(InitiateCall.MAX_ATTEMPTS, c.attempts());
+        assertEquals(InitiateCall.MAX_ATTEMPTS - 1, delays.size());
+        assertNotNull(o.error);
+    }
+
+    @Test
+    public void tracesTheCallAndEachAttempt() {
+        assertEquals(0L, CheckoutTrace.begin());
+        List<CheckoutTrace.Span> spans = Collections.synchronizedList(new ArrayList<>());
+        CheckoutTrace.setListener(spans::add);
+
+        server.failNext(503, -1);
+        PaymentSession s = new PaymentSession("s", "salt", null, base, 60_000);
+        call(s, new ArrayList<>()).run();
+
+        List<String> names = new ArrayList<>();
+        for (CheckoutTrace.Span span : spans) {
+            assertEquals("s", span.checkoutId);
+            assertTrue(span.durationNanos >= 0);
+            if (!span.name.equals(CheckoutTrace.INITIATE_DNS)) names.add(span.name);
+        }
+        // two attempts, then the whole call; the DNS span depends on earlier lookups
+        assertEquals(Arrays.asList(
+                CheckoutTrace.INITIATE_CONNECT, CheckoutTrace.INITIATE_SEND, CheckoutTrace.INITIATE_TTFB,
+                CheckoutTrace.INITIATE_CONNECT, CheckoutTrace.INITIATE_SEND, CheckoutTrace.INITIATE_TTFB,
+                CheckoutTrace.INITIATE), names);
+        assertEquals("2", spans.get(spans.size() - 1).detail);
+        assertNull(CheckoutTrace.initiating());
+    }
+
+    @Test
+    public void nothingIsRecordedWithoutAListener() {
+        long begin = CheckoutTrace.begin();
+        assertEquals(0L, begin);
+        CheckoutTrace.enterInitiate("s");
+        assertNull(CheckoutTrace.initiating());
+        CheckoutTrace.setListener(span -> { throw new IllegalStateException("broken"); });
+        // a throwing listener is contained
+        CheckoutTrace.end(CheckoutTrace.RESULT, "s", CheckoutTrace.begin());
+    }
+
+    @Test
+    public void idempotencyKeyFollowsTheMerchantOrderId() {
+        String a = InitiateCall.idempotencyKey("app", "{\"amount\":1,\"merchantOrderId\":\"ORD1\"}");
+        String b = InitiateCall.idempotencyKey("app", "{\"merchantOrderId\":\"ORD1\",\"amount\":1,\"x\":[1]}");
+        assertEquals(a, b);
+        assertNotEquals(a, InitiateCall.idempotencyKey("app", "{\"merchantOrderId\":\"ORD2\"}"));
+        assertNotEquals(a, InitiateCall.idempotencyKey("other.app", "{\"merchantOrderId\":\"ORD1\"}"));
+        assertEquals(InitiateCall.idempotencyKey("app", "not json"), InitiateCall.idempotencyKey("app", "not json"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class JsonPullReaderTest {
+
+    @Test
+    public void readsWantedFieldsAndSkipsTheRest() throws IOException {
+        String json = "{\"meta\":{\"a\":[1,2,{\"b\":\"x\\\"y\"}],\"c\":null},"
+                + " \"status\" : \"success\", \"amount\": 12.5, \"ok\": true,"
+                + " \"transactionId\":\"T\\u0031\"}";
+        TransactionStatus st = TransactionStatus.read(new JsonPullReader(json), "MO1");
+        assertEquals("MO1", st.merchantOrderId);
+        assertEquals("success", st.status);
+        assertEquals("T1", st.transactionId);
+        assertNull(st.orderId);
+        assertFalse(st.isError());
+    }
+
+    @Test
+    public void readerAndCharSequenceSourcesAgree() throws IOException {
+        StringBuilder sb = new StringBuilder("{\"pad\":\"");
+        // longer than the reader's internal buffer
+        for (int i = 0; i < 5000; i++) sb.append('x');
+        sb.append("\",\"payment_url\":\"https://pay.example/s/1\"}");
+
+        for (JsonPullReader r : new JsonPullReader[]{
+                new JsonPullReader(sb), new JsonPullReader(new StringReader(sb.toString()))}) {
+            r.beginObject();
+            assertEquals("pad", r.nextName());
+            r.skipValue();
+            assertEquals("payment_url", r.nextName());
+            assertEquals("https://pay.example/s/1", r.nextString());
+            r.endObject();
+            assertEquals(JsonPullReader.Token.END_DOCUMENT, r.peek());
+        }
+    }
+
+    @Test
+    public void numbersAndBooleansReadAsText() throws IOException {
+        JsonPullReader r = new JsonPullReader("[-1.5e3,false,null]");
+        r.beginArray();
+        assertEquals("-1.5e3", r.nextString());
+        assertEquals("false", r.nextString());
+        assertNull(r.nextStringOrNull());
+        assertFalse(r.hasNext());
+        r.endArray();
+    }
+
+    @Test(expected = JsonPullReader.SyntaxException.class)
+    public void rejectsHtml() throws IOException {
+        new JsonPullReader("<html><body>502 Bad Gateway</body></html>").beginObject();
+    }
+
+    @Test(expected = JsonPullReader.SyntaxException.class)
+    public void rejectsTruncatedDocument() throws IOException {
+        JsonPullReader r = new JsonPullReader("{\"status\":\"succ");
+        r.beginObject();
+        r.nextName();
+        r.nextString();
+    }
+
+    @Test
+    public void lenientReaderReportsMalformedInputWithoutThrowing() throws IOException {
+        JsonPullReader r = JsonPullReader.lenient("{\"status\":\"succ");
+        r.beginObject();
+        assertEquals("status", r.nextName());
+        assertNull(r.nextString());
+        assertTrue(r.isMalformed());
+        assertEquals(JsonPullReader.Token.MALFORMED, r.peek());
+        assertFalse(r.hasNext());
+        assertNull(r.nextName());
+
+        JsonPullReader ok = JsonPullReader.lenient("{\"a\":[1,{\"b\":null}]}");
+        ok.beginObject();
+        ok.nextName();
+        ok.skipValue();
+        ok.endObject();
+        assertEquals(JsonPullReader.Token.END_DOCUMENT, ok.peek());
+        assertFalse(ok.isMalformed());
+    }
+}
@@ -0,0 +1,74 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class LaunchDeduperTest {
+
+    @Test
+    public void oneClaimPerWindow() {
+        AtomicLong now = new AtomicLong(1_000);
+        LaunchDeduper d = new LaunchDeduper(8_000, 64, now::get);
+
+        assertTrue(d.tryClaim("upi://pay?pa=a@b"));
+        assertFalse(d.tryClaim("upi://pay?pa=a@b"));
+        assertTrue(d.tryClaim("phonepe://pay?pa=a@b"));
+
+        now.addAndGet(7_999);
+        assertFalse(d.tryClaim("upi://pay?pa=a@b"));
+        now.addAndGet(1);
+        assertTrue(d.tryClaim("upi://pay?pa=a@b"));
+    }
+
+    @Test
+    public void releaseAllowsImmediateRetry() {
+        LaunchDeduper d = new LaunchDeduper(8_000, 64, () -> 0L);
+        assertTrue(d.tryClaim("k"));
+        d.release("k");
+        assertTrue(d.tryClaim("k"));
+    }
+
+    @Test
+    public void sizeStaysBounded() {
+        AtomicLong now = new AtomicLong();
+        LaunchDeduper d = new LaunchDeduper(8_000, 16, now::get);
+        for (int i = 0; i < 1_000; i++) {
+            now.incrementAndGet();
+            assertTrue(d.tryClaim("k" + i));
+            assertTrue(d.size() <= 16);
+        }
+        // the newest claims survive eviction
+        assertFalse(d.tryClaim("k999"));
+    }
+
+    @Test
+    public void concurrentCallersGetExactlyOneWinner() throws Exception {
+        final LaunchDeduper d = new LaunchDeduper(60_000, 64, () -> 42L);
+        final int threads = 8, rounds = 200;
+        for (int round = 0; round < rounds; round++) {
+            final String key = "intent://pay#" + round;
+            final AtomicInteger winners = new AtomicInteger();
+            final CountDownLatch start = new CountDownLatch(1);
+            final CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                new Thread(() -> {
+                    try {
+                        start.await();
+                        if (d.tryClaim(key)) winners.incrementAndGet();
+                    } catch (InterruptedException ignored) {
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            start.countDown();
+            done.await();
+            assertEquals(1, winners.get());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.gurutva.gurutvapay_sdk;
+
+import com.gurutva.gurutvapay_sdk.testing.LoadDriver;
+import com.gurutva.gurutvapay_sdk.testing.MockGurutvaPayServer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Concurrent checkouts against {@link MockGurutvaPayServer}: retries, idempotency, connection
+ * reuse and status batching under load. Small by default; scale up with
+ * -Pgurutvapay.load.checkouts=5000 -Pgurutvapay.load.concurrency=64.
+ */
+public class NetworkLoadTest {
+
+    private static final int CHECKOUTS = Integer.getInteger("gurutvapay.load.checkouts", 200);
+    private static final int CONCURRENCY = Integer.getInteger("gurutvapay.load.concurrency", 16);
+
+    private MockGurutvaPayServer server;
+
+    @After
+    public void stopServer() {
+        if (server != null) server.close();
+    }
+
+    // initiate with retries, blocking the load thread between attempts like a worker would
+    private static String initiate(String base, int i) throws Exception {
+        final OrderPayload order = OrderPayload.builder("LOAD-" + i, 100 + i).addItem("item", 1, 100 + i).build();
+        final String key = InitiateCall.idempotencyKey("load.app", order);
+        final PaymentSession s = new PaymentSession("s" + i, "salt", null, order, base, 60_000);
+        new InitiateCall(s, () -> GurutvaPayApi.initiatePayment(base, "salt", "load.app", order, key),
+                (attempt, delayMs) -> {
+                    try {
+                        Thread.sleep(delayMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    attempt.run();
+                }, new Random(i)).run();
+        if (s.isFailed()) throw new AssertionError("checkout " + i + " failed");
+        return s.getPaymentUrl();
+    }
+
+    @Test
+    public void checkoutsSurviveInjectedErrors() throws Exception {
+        // never more failures per order than InitiateCall retries, whatever the request order
+        server = MockGurutvaPayServer.builder().latency(1, 5).errorRate(0.1).retryAfterSeconds(0)
+                .maxErrorsPerKey(InitiateCall.MAX_ATTEMPTS - 1).start();
+        final String base = server.baseUrl();
+
+        LoadDriver.Report r = LoadDriver.run(CHECKOUTS, CONCURRENCY, i -> {
+            String url = initiate(base, i);
+            if (url == null || !url.startsWith(base + "/pay/")) throw new AssertionError(url);
+        });
+        final int requests = server.requests(MockGurutvaPayServer.INITIATE);
+        final String stats = "initiate: " + r + ", " + requests + " requests, " + server.injectedErrors()
+                + " injected errors, " + server.connections() + " connections";
+
+        assertEquals(stats + " " + r.errors, 0, r.failures);
+        // retries reuse the Idempotency-Key, so no order gets a second session
+        assertEquals(stats, CHECKOUTS, server.sessions());
+        assertEquals(stats, CHECKOUTS + server.injectedErrors(), requests);
+        assertTrue("no keep-alive reuse; " + stats, server.connections() < requests);
+    }
+
+    @Test
+    public void concurrentStatusLookupsAreBatched() throws Exception {
+        server = MockGurutvaPayServer.builder().latency(1, 5).start();
+        final String base = server.baseUrl();
+        LoadDriver.run(CHECKOUTS, CONCURRENCY, i -> initiate(base, i));
+        server.setStatus("LOAD-7", "PENDING");
+
+        final TransactionStatusClient client = new TransactionStatusClient(base, "salt", "load.app");
+        try {
+            LoadDriver.Report r = LoadDriver.run(CHECKOUTS, CHECKOUTS, i -> {
+                TransactionStatus st = client.fetch("LOAD-" + i).get(10, TimeUnit.SECONDS);
+                if (!(i == 7 ? "PENDING" : "SUCCESS").equals(st.status)) throw new AssertionError(st);
+            });
+            final int batches = server.requests(MockGurutvaPayServer.STATUS_BATCH);
+            final String stats = "status: " + r + ", " + batches + " batch requests";
+
+            assertEquals(stats + " " + r.errors, 0, r.failures);
+            assertEquals(stats, 0, server.requests(MockGurutvaPayServer.STATUS));
+            assertTrue(stats, batches < CHECKOUTS / 2);
+        } finally {
+            client.shutdown();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.gurutva.gurutvapay_sdk;
+
+import com.gurutva.gurutvapay_sdk.testing.MockGurutvaPayServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PaymentSessionsTest {
+
+    private MockGurutvaPayServer server;
+
+    @Before
+    public void start() throws Exception {
+        server = MockGurutvaPayServer.builder().latency(300, 300).start();
+    }
+
+    @After
+    public void stop() {
+        server.close();
+    }
+
+    private PaymentSession start(String merchantOrderId) {
+        return PaymentSessions.start("test.app", "salt", null, OrderPayload.builder(merchantOrderId, 100).build(),
+                server.baseUrl(), PaymentSessions.DEFAULT_TTL_MS);
+    }
+
+    @Test
+    public void discardedSessionIsNotReused() {
+        final PaymentSession first = start("MO-discard");
+        assertSame(first, start("MO-discard"));
+
+        PaymentSessions.discard(first);
+        final PaymentSession next = start("MO-discard");
+        assertNotSame(first, next);
+        // discarding a stale handle leaves the current session alone
+        PaymentSessions.discard(first);
+        assertSame(next, start("MO-discard"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SdkExecutorsTest {
+
+    @After
+    public void restoreDefault() {
+        SdkExecutors.setHostExecutor(null);
+    }
+
+    @Test
+    public void serialRunsTasksInOrderOneAtATime() throws Exception {
+        final Executor serial = SdkExecutors.serial();
+        final List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger running = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(200);
+        for (int i = 0; i < 200; i++) {
+            final int n = i;
+            serial.execute(() -> {
+                assertEquals(1, running.incrementAndGet());
+                seen.add(n);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 200; i++) assertEquals(i, (int) seen.get(i));
+    }
+
+    @Test
+    public void hostExecutorReceivesScheduledWork() throws Exception {
+        // timers left by other tests may land here too; only the thread our task ran on matters
+        SdkExecutors.setHostExecutor(r -> new Thread(r, "host-thread").start());
+        final CountDownLatch ran = new CountDownLatch(1);
+        final String[] ranOn = new String[1];
+        SdkExecutors.schedule(() -> {
+            ranOn[0] = Thread.currentThread().getName();
+            ran.countDown();
+        }, 10);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals("host-thread", ranOn[0]);
+    }
+}
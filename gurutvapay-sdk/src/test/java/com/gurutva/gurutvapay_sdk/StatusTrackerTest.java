@@ -0,0 +1,199 @@
+package com.gurutva.gurutvapay_sdk;
+
+import com.gurutva.gurutvapay_sdk.testing.MockGurutvaPayServer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class StatusTrackerTest {
+
+    /** Manual clock: tasks run only when the test advances time. */
+    static final class ManualScheduler implements StatusTracker.Scheduler {
+        private static final class Task {
+            final long due;
+            final long seq;
+            final Runnable r;
+
+            Task(long due, long seq, Runnable r) {
+                this.due = due;
+                this.seq = seq;
+                this.r = r;
+            }
+        }
+
+        private final PriorityQueue<Task> queue = new PriorityQueue<>((a, b) ->
+                a.due != b.due ? Long.compare(a.due, b.due) : Long.compare(a.seq, b.seq));
+        private long now;
+        private long seq;
+
+        @Override public long nowMillis() { return now; }
+
+        @Override public void schedule(Runnable task, long delayMs) {
+            queue.add(new Task(now + delayMs, seq++, task));
+        }
+
+        @Override public void shutdown() { queue.clear(); }
+
+        void advanceTo(long t) {
+            while (!queue.isEmpty() && queue.peek().due <= t) {
+                Task next = queue.poll();
+                now = next.due;
+                next.r.run();
+            }
+            now = t;
+        }
+    }
+
+    static final class RecordingListener implements StatusTracker.Listener {
+        final List<String> changes = new ArrayList<>();
+        final List<Long> changeTimes = new ArrayList<>();
+        final List<String> stopped = new ArrayList<>();
+        private final ManualScheduler clock;
+
+        RecordingListener(ManualScheduler clock) {
+            this.clock = clock;
+        }
+
+        @Override public void onStatusChanged(String merchantOrderId, TransactionStatus status) {
+            changes.add(status.status);
+            changeTimes.add(clock.nowMillis());
+        }
+
+        @Override public void onTrackingStopped(String merchantOrderId, TransactionStatus last) {
+            stopped.add(merchantOrderId);
+        }
+    }
+
+    private static TransactionStatus status(String id, String s) {
+        return new TransactionStatus(id, s, null, null, null);
+    }
+
+    @Test
+    public void detectsSuccessWithinFewSeconds() {
+        ManualScheduler clock = new ManualScheduler();
+        RecordingListener l = new RecordingListener(clock);
+        final int[] requests = {0};
+        StatusTracker tracker = new StatusTracker(id -> {
+            requests[0]++;
+            return CompletableFuture.completedFuture(
+                    status(id, clock.nowMillis() >= 3_000 ? "success" : "pending"));
+        }, clock, l, new Random(1));
+
+        tracker.track("MO1");
+        clock.advanceTo(60_000);
+
+        assertEquals("success", l.changes.get(l.changes.size() - 1));
+        assertTrue("detected at " + l.changeTimes.get(l.changeTimes.size() - 1),
+                l.changeTimes.get(l.changeTimes.size() - 1) <= 6_000);
+        assertEquals(1, l.stopped.size());
+        assertFalse(tracker.isTracking("MO1"));
+        assertTrue("requests " + requests[0], requests[0] <= 5);
+    }
+
+    @Test
+    public void backsOffAndStopsWhilePending() {
+        ManualScheduler clock = new ManualScheduler();
+        RecordingListener l = new RecordingListener(clock);
+        final int[] requests = {0};
+        StatusTracker tracker = new StatusTracker(id -> {
+            requests[0]++;
+            return CompletableFuture.completedFuture(status(id, "pending"));
+        }, clock, l, new Random(2));
+
+        tracker.track("MO1");
+        clock.advanceTo(StatusTracker.MAX_TRACKING_MS + 60_000);
+
+        // one change event for the first "pending", none for repeats
+        assertEquals(1, l.changes.size());
+        assertEquals(1, l.stopped.size());
+        // a fixed 1s poll would be 900 requests over 15 minutes
+        assertTrue("requests " + requests[0], requests[0] <= 45);
+    }
+
+    @Test
+    public void neverTwoRequestsInFlightForSameOrder() {
+        ManualScheduler clock = new ManualScheduler();
+        RecordingListener l = new RecordingListener(clock);
+        final List<CompletableFuture<TransactionStatus>> inFlight = new ArrayList<>();
+        StatusTracker tracker = new StatusTracker(id -> {
+            CompletableFuture<TransactionStatus> f = new CompletableFuture<>();
+            inFlight.add(f);
+            return f;
+        }, clock, l, new Random(3));
+
+        tracker.track("MO1");
+        clock.advanceTo(2_000);
+        tracker.track("MO1");
+        tracker.track("MO1");
+        clock.advanceTo(10_000);
+        assertEquals(1, inFlight.size());
+
+        // the re-track during the request triggers one follow-up poll, not several
+        inFlight.get(0).complete(status("MO1", "pending"));
+        clock.advanceTo(10_000);
+        assertEquals(2, inFlight.size());
+
+        inFlight.get(1).complete(status("MO1", "failed"));
+        assertEquals(1, l.stopped.size());
+        clock.advanceTo(120_000);
+        assertEquals(2, inFlight.size());
+    }
+
+    @Test
+    public void pollsMockServerWithinRateCapAndSeesSuccess() throws Exception {
+        try (MockGurutvaPayServer server = MockGurutvaPayServer.builder().latency(1, 5).start()) {
+            server.setStatus("MO1", "PENDING");
+            final TransactionStatusClient client = new TransactionStatusClient(server.baseUrl(), "salt", "test.app");
+            ManualScheduler clock = new ManualScheduler();
+            RecordingListener l = new RecordingListener(clock);
+            // real HTTP lookups, handed to the tracker on the test thread so the manual clock stays single-threaded
+            final List<CompletableFuture<TransactionStatus>> http = new ArrayList<>();
+            final List<CompletableFuture<TransactionStatus>> delivered = new ArrayList<>();
+            StatusTracker tracker = new StatusTracker(id -> {
+                CompletableFuture<TransactionStatus> f = new CompletableFuture<>();
+                http.add(client.fetch(id));
+                delivered.add(f);
+                return f;
+            }, clock, l, new Random(4));
+
+            tracker.track("MO1");
+            final long flipAt = 10 * 60_000L;
+            int requestsAtFlip = -1;
+            for (long t = 0; t <= flipAt + 2 * StatusTracker.MAX_DELAY_MS && tracker.isTracking("MO1"); t += 100) {
+                if (t == flipAt) {
+                    requestsAtFlip = server.requests(MockGurutvaPayServer.STATUS);
+                    server.setStatus("MO1", "SUCCESS");
+                }
+                clock.advanceTo(t);
+                for (int i = 0; i < http.size(); i++) {
+                    if (!delivered.get(i).isDone()) delivered.get(i).complete(http.get(i).get(5, TimeUnit.SECONDS));
+                }
+            }
+            client.shutdown();
+
+            // backoff: no more polls than the shortest jittered delays allow, far below one per second
+            int cap = 0;
+            for (long at = 0, d = StatusTracker.INITIAL_DELAY_MS; at <= flipAt; cap++) {
+                at += (long) (d * (1 - StatusTracker.JITTER));
+                d = Math.min(StatusTracker.MAX_DELAY_MS, (long) (d * StatusTracker.BACKOFF));
+            }
+            assertTrue("requests " + requestsAtFlip + " > " + cap, requestsAtFlip <= cap);
+            assertTrue(requestsAtFlip > 0);
+
+            assertEquals("SUCCESS", l.changes.get(l.changes.size() - 1));
+            final long detectedAt = l.changeTimes.get(l.changeTimes.size() - 1);
+            assertTrue("detected at " + detectedAt,
+                    detectedAt <= flipAt + StatusTracker.MAX_DELAY_MS * (1 + StatusTracker.JITTER));
+            assertEquals(1, l.stopped.size());
+            assertEquals(0, server.requests(MockGurutvaPayServer.STATUS_BATCH));
+        }
+    }
+}
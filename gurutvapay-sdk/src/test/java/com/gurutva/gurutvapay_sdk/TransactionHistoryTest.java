@@ -0,0 +1,135 @@
+package com.gurutva.gurutvapay_sdk;
+
+import com.gurutva.gurutvapay_sdk.testing.MockGurutvaPayServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TransactionHistoryTest {
+
+    private static final int ORDERS = 1_000;
+
+    // synthetic history: ORD999 .. ORD0, newest first
+    private MockGurutvaPayServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = MockGurutvaPayServer.builder().historySize(ORDERS).start();
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    private int requests() {
+        return server.requests(MockGurutvaPayServer.HISTORY);
+    }
+
+    private static final class RecordingListener implements TransactionHistory.Listener {
+        final List<int[]> loads = new ArrayList<>();
+        String error;
+
+        @Override
+        public void onPageLoaded(int fromPosition, int itemCount, int totalCount, boolean appended) {
+            loads.add(new int[]{fromPosition, itemCount, totalCount, appended ? 1 : 0});
+        }
+
+        @Override
+        public void onLoadError(String message) {
+            error = message;
+        }
+    }
+
+    private TransactionHistory history(int maxCachedPages, RecordingListener l) {
+        final String base = server.baseUrl();
+        return new TransactionHistory(
+                (cursor, limit) -> GurutvaPayApi.transactionHistory(base, "salt", "app", cursor, limit),
+                50, 20, maxCachedPages, Runnable::run, l);
+    }
+
+    @Test
+    public void pagesAreFetchedOnlyAsPositionsApproachTheEnd() {
+        RecordingListener l = new RecordingListener();
+        TransactionHistory h = history(10, l);
+        assertEquals(0, h.size());
+        h.loadMore();
+        assertEquals(50, h.size());
+        assertEquals("ORD999", h.get(0).merchantOrderId);
+
+        // not yet within the prefetch distance
+        h.get(29);
+        assertEquals(1, requests());
+        h.get(30);
+        assertEquals(2, requests());
+        assertEquals(100, h.size());
+        assertEquals("ORD949", h.get(50).merchantOrderId);
+    }
+
+    @Test
+    public void scrollsToTheEndAndStops() {
+        RecordingListener l = new RecordingListener();
+        TransactionHistory h = history(3, l);
+        h.loadMore();
+        for (int i = 0; i < h.size(); i++) {
+            TransactionRecord r = h.get(i);
+            assertNotNull("position " + i, r);
+            assertEquals("ORD" + (ORDERS - 1 - i), r.merchantOrderId);
+        }
+        assertEquals(ORDERS, h.size());
+        assertFalse(h.hasMore());
+        assertEquals(ORDERS / 50, requests());
+        assertNull(l.error);
+    }
+
+    @Test
+    public void statusUpdatesReplaceCachedRows() {
+        RecordingListener l = new RecordingListener();
+        TransactionHistory h = history(10, l);
+        h.loadMore();
+        h.get(30);
+
+        assertEquals(60, h.updateStatus("ORD939", "failed", null, "T939"));
+        TransactionRecord r = h.get(60);
+        assertEquals("failed", r.status);
+        assertEquals("T939", r.transactionId);
+        assertEquals(939, r.amount);
+        // not loaded yet: nothing to update
+        assertEquals(-1, h.updateStatus("ORD1", "failed", null, null));
+        assertEquals(2, requests());
+    }
+
+    @Test
+    public void evictedPagesAreRefetchedByCursor() {
+        RecordingListener l = new RecordingListener();
+        TransactionHistory h = history(2, l);
+        h.loadMore();
+        for (int i = 0; i < 150; i++) h.get(i);
+        int before = requests();
+
+        // page 0 was the least recently used of four pages; it is gone
+        assertNull(h.get(10));
+        assertEquals(before + 1, requests());
+        int[] last = l.loads.get(l.loads.size() - 1);
+        assertArrayEquals(new int[]{0, 50, h.size(), 0}, last);
+        assertEquals("ORD989", h.get(10).merchantOrderId);
+    }
+
+    @Test
+    public void errorsStopLoadingUntilRetry() {
+        RecordingListener l = new RecordingListener();
+        TransactionHistory h = history(2, l);
+        server.close();
+        h.loadMore();
+        assertNotNull(l.error);
+        assertEquals(0, h.size());
+        assertTrue(h.hasMore());
+    }
+}
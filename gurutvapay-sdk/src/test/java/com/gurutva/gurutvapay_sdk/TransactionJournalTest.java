@@ -0,0 +1,105 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TransactionJournalTest {
+
+    private File dir;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal").toFile();
+        file = new File(dir, "transactions.journal");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void reloadKeepsLatestRecordPerOrderInFirstSeenOrder() throws IOException {
+        TransactionJournal j = TransactionJournal.open(file);
+        TransactionRecord a = TransactionRecord.create("MO1", 100);
+        j.put(a);
+        j.put(TransactionRecord.create("MO2", 250));
+        j.put(a.withStatus("success", "O1", "T1"));
+        j.put(TransactionRecord.create("MO3", 5));
+        j.remove("MO3");
+        j.close();
+
+        TransactionJournal reloaded = TransactionJournal.open(file);
+        List<TransactionRecord> all = reloaded.records();
+        assertEquals(2, all.size());
+        assertEquals("MO1", all.get(0).merchantOrderId);
+        assertEquals("success", all.get(0).status);
+        assertEquals("T1", all.get(0).transactionId);
+        assertEquals(a.createdAt, all.get(0).createdAt);
+        assertEquals(250, reloaded.get("MO2").amount);
+        assertNull(reloaded.get("MO3"));
+        reloaded.close();
+    }
+
+    @Test
+    public void tornTailIsDroppedAndJournalStaysWritable() throws IOException {
+        TransactionJournal j = TransactionJournal.open(file);
+        j.put(TransactionRecord.create("MO1", 1));
+        j.put(TransactionRecord.create("MO2", 2));
+        j.close();
+
+        // simulate a crash in the middle of the last frame
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+
+        j = TransactionJournal.open(file);
+        assertNotNull(j.get("MO1"));
+        assertNull(j.get("MO2"));
+        j.put(TransactionRecord.create("MO3", 3));
+        j.close();
+
+        j = TransactionJournal.open(file);
+        assertEquals(2, j.size());
+        assertNotNull(j.get("MO3"));
+        j.close();
+    }
+
+    @Test
+    public void compactionShrinksTheLogWithoutLosingRecords() throws IOException {
+        TransactionJournal j = TransactionJournal.open(file);
+        TransactionRecord r = TransactionRecord.create("MO1", 1);
+        j.put(TransactionRecord.create("MO2", 2));
+        for (int i = 0; i < TransactionJournal.COMPACT_MIN_RECORDS; i++) {
+            r = r.withStatus(i % 2 == 0 ? "pending" : "processing", null, null);
+            j.put(r);
+        }
+        j.sync();
+        long compacted = file.length();
+        j.close();
+        assertTrue("log was not compacted: " + compacted, compacted < 1_000);
+
+        j = TransactionJournal.open(file);
+        assertEquals(2, j.size());
+        assertEquals(r, j.get("MO1"));
+        j.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsForeignFile() throws IOException {
+        Files.write(file.toPath(), "not a journal".getBytes("UTF-8"));
+        TransactionJournal.open(file);
+    }
+}
@@ -0,0 +1,132 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TransactionRepositoryTest {
+
+    private static final class RecordingListener implements TransactionRepository.Listener {
+        final List<TransactionRecord[]> changes = new ArrayList<>();
+        int loaded = -1;
+
+        @Override
+        public void onRecordChanged(TransactionRecord previous, TransactionRecord current) {
+            changes.add(new TransactionRecord[]{previous, current});
+        }
+
+        @Override
+        public void onRecordsLoaded(int count) {
+            loaded = count;
+        }
+    }
+
+    @Test
+    public void updatesFindTheOrderRegardlessOfInsertsBeforeIt() {
+        TransactionRepository repo = new TransactionRepository();
+        repo.put(TransactionRecord.create("MO1", 100));
+        repo.put(TransactionRecord.create("MO2", 200));
+        repo.put(TransactionRecord.create("MO3", 300));
+
+        TransactionRecord updated = repo.updateStatus("MO1", "success", "O1", "T1");
+        assertEquals("success", updated.status);
+
+        List<TransactionRecord> s = repo.snapshot();
+        assertEquals("MO3", s.get(0).merchantOrderId);
+        assertSame(updated, s.get(2));
+        assertSame(updated, repo.findByTransactionId("T1"));
+        assertSame(updated, repo.findByOrderId("O1"));
+        assertNull(repo.updateStatus("missing", "success", null, null));
+    }
+
+    @Test
+    public void secondaryIndexFollowsChangedIds() {
+        TransactionRepository repo = new TransactionRepository();
+        repo.put(TransactionRecord.create("MO1", 1));
+        repo.updateStatus("MO1", "pending", null, "T1");
+        repo.updateStatus("MO1", "success", null, "T2");
+        assertNull(repo.findByTransactionId("T1"));
+        assertEquals("MO1", repo.findByTransactionId("T2").merchantOrderId);
+    }
+
+    @Test
+    public void listenersSeeRealChangesOnly() {
+        TransactionRepository repo = new TransactionRepository();
+        RecordingListener l = new RecordingListener();
+        repo.addListener(l);
+
+        repo.put(TransactionRecord.create("MO1", 1));
+        repo.updateStatus("MO1", "processing", null, null);
+        List<TransactionRecord> before = repo.snapshot();
+        repo.updateStatus("MO1", "processing", null, null); // no-op
+
+        assertEquals(2, l.changes.size());
+        assertNull(l.changes.get(0)[0]);
+        assertEquals("pending", l.changes.get(1)[0].status);
+        assertEquals("processing", l.changes.get(1)[1].status);
+        assertSame(before, repo.snapshot());
+    }
+
+    @Test
+    public void attachMergesJournalBelowNewerRecordsAndWritesThrough() throws IOException {
+        File dir = Files.createTempDirectory("repo").toFile();
+        File file = new File(dir, "transactions.journal");
+        try {
+            TransactionJournal j = TransactionJournal.open(file);
+            j.put(TransactionRecord.create("OLD1", 1));
+            j.put(TransactionRecord.create("OLD2", 2));
+
+            TransactionRepository repo = new TransactionRepository();
+            RecordingListener l = new RecordingListener();
+            repo.addListener(l);
+            repo.put(TransactionRecord.create("NEW", 3));
+            repo.attach(j);
+
+            assertEquals(2, l.loaded);
+            List<TransactionRecord> s = repo.snapshot();
+            assertEquals("NEW", s.get(0).merchantOrderId);
+            assertEquals("OLD2", s.get(1).merchantOrderId);
+            assertEquals("OLD1", s.get(2).merchantOrderId);
+
+            repo.updateStatus("OLD1", "success", null, "T9");
+            repo.sync();
+            j.close();
+
+            TransactionJournal reloaded = TransactionJournal.open(file);
+            assertNotNull(reloaded.get("NEW"));
+            assertEquals("T9", reloaded.get("OLD1").transactionId);
+            reloaded.close();
+        } finally {
+            file.delete();
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void syncAsyncWritesInTheBackground() throws Exception {
+        File dir = Files.createTempDirectory("repo").toFile();
+        File file = new File(dir, "transactions.journal");
+        try {
+            TransactionJournal j = TransactionJournal.open(file);
+            TransactionRepository repo = new TransactionRepository();
+            repo.attach(j);
+            repo.put(TransactionRecord.create("MO1", 1));
+            repo.syncAsync().get(5, TimeUnit.SECONDS);
+            j.close();
+
+            TransactionJournal reloaded = TransactionJournal.open(file);
+            assertNotNull(reloaded.get("MO1"));
+            reloaded.close();
+        } finally {
+            file.delete();
+            dir.delete();
+        }
+    }
+}
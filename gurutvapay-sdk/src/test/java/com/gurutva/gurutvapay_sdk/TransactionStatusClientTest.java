@@ -0,0 +1,46 @@
+package com.gurutva.gurutvapay_sdk;
+
+import com.gurutva.gurutvapay_sdk.testing.MockGurutvaPayServer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TransactionStatusClientTest {
+
+    private MockGurutvaPayServer server;
+    private TransactionStatusClient client;
+
+    @After
+    public void stop() {
+        if (client != null) client.shutdown();
+        if (server != null) server.close();
+    }
+
+    @Test
+    public void lookupOfAnIdInFlightSharesItsFuture() throws Exception {
+        server = MockGurutvaPayServer.builder().latency(400, 400).start();
+        server.setStatus("MO1", "PENDING");
+        client = new TransactionStatusClient(server.baseUrl(), "salt", "test.app");
+
+        final CompletableFuture<TransactionStatus> first = client.fetch("MO1");
+        // past the coalescing window: the batch is flushed and waiting on the server
+        Thread.sleep(TransactionStatusClient.COALESCE_WINDOW_MS + 150);
+        assertFalse(first.isDone());
+        assertSame(first, client.fetch("MO1"));
+
+        assertEquals("PENDING", first.get(5, TimeUnit.SECONDS).status);
+        assertEquals(1, server.requests(MockGurutvaPayServer.STATUS));
+
+        // completed: the next lookup asks again
+        server.setStatus("MO1", "SUCCESS");
+        final CompletableFuture<TransactionStatus> next = client.fetch("MO1");
+        assertNotSame(first, next);
+        assertEquals("SUCCESS", next.get(5, TimeUnit.SECONDS).status);
+        assertEquals(2, server.requests(MockGurutvaPayServer.STATUS));
+    }
+}
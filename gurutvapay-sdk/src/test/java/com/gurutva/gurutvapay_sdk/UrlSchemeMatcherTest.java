@@ -0,0 +1,56 @@
+package com.gurutva.gurutvapay_sdk;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UrlSchemeMatcherTest {
+
+    private final UrlSchemeMatcher matcher =
+            new UrlSchemeMatcher("intent:", "upi:", "phonepe://", "paytmmp://", "tez://");
+
+    @Test
+    public void prefixMatchIsCaseInsensitive() {
+        assertEquals("upi:", matcher.matchPrefix("UPI://pay?pa=a@b"));
+        assertEquals("intent:", matcher.matchPrefix("Intent://pay#Intent;scheme=upi;end"));
+        assertEquals("tez://", matcher.matchPrefix("tez://upi/pay?pa=a@b"));
+        assertNull(matcher.matchPrefix("https://pay.gurutvapay.com/s/1"));
+        assertNull(matcher.matchPrefix("phonepe:/missing-slash"));
+        assertNull(matcher.matchPrefix(""));
+        assertNull(matcher.matchPrefix(null));
+    }
+
+    @Test
+    public void findsFirstLinkInText() {
+        assertEquals("upi://pay?pa=a@b&am=10",
+                matcher.findFirst("redirecting to \"upi://pay?pa=a@b&am=10\" now"));
+        assertEquals("intent://x#Intent;end", matcher.findFirst("<a href=intent://x#Intent;end>"));
+        assertEquals("phonepe://pay?x=1", matcher.findFirst("log: PHONEPE://pay?x=1".toLowerCase()));
+        assertNull(matcher.findFirst("upi: "));
+        assertNull(matcher.findFirst("no links here, just upi_intent chatter"));
+    }
+
+    @Test
+    public void registeredWalletSchemesAreRecognized() {
+        assertNull(matcher.matchPrefix("bhim://pay?pa=a@b"));
+        matcher.register("BHIM");
+        matcher.register("mobikwik:");
+        matcher.register("bhim://");
+        assertEquals("bhim://", matcher.matchPrefix("bhim://pay?pa=a@b"));
+        assertEquals("mobikwik:", matcher.matchPrefix("MobiKwik:pay"));
+        assertEquals("bhim://pay", matcher.findFirst("open bhim://pay"));
+        // built-ins still work after the index is rebuilt
+        assertEquals("upi:", matcher.matchPrefix("upi://pay"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidScheme() {
+        matcher.register("9pay://");
+    }
+
+    @Test
+    public void literalReplaceFirst() {
+        assertEquals("phonepe://pay?pa=a.b@c", UrlSchemeMatcher.replaceFirst("upi://pay?pa=a.b@c", "upi://pay", "phonepe://pay"));
+        assertEquals("upi:pay", UrlSchemeMatcher.replaceFirst("upi:pay", "upi://pay", "tez://upi/pay"));
+    }
+}
@@ -22,3 +22,6 @@ dependencyResolutionManagement {
 rootProject.name = "gurutvapay"
 include(":app")
 include(":gurutvapay-sdk")
+include(":test-fixtures")
+include(":benchmark")
+include(":benchmark-android")
@@ -0,0 +1,15 @@
+plugins {
+    `java-library`
+    application
+}
+
+// Mock GurutvaPay API and load driver for the SDK's JVM tests; plain JDK, no dependencies.
+// Standalone: ./gradlew :test-fixtures:run --args="--port 8080 --latency 50..200 --error-rate 0.05"
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+application {
+    mainClass.set("com.gurutva.gurutvapay_sdk.testing.MockGurutvaPayServer")
+}
@@ -0,0 +1,111 @@
+package com.gurutva.gurutvapay_sdk.testing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs N simulated checkouts on a fixed number of threads and reports throughput and latency
+ * percentiles, e.g. against {@link MockGurutvaPayServer}:
+ *
+ *  LoadDriver.Report r = LoadDriver.run(500, 32, i -> checkout("ORD" + i));
+ *  System.out.println(r);   // 500 checkouts, 0 failed, 812.4/s, p50 31.2ms p90 48.0ms p99 77.5ms max 90.1ms
+ *
+ * Every checkout is timed from start to return; a checkout that throws counts as failed and is
+ * left out of the percentiles. Run a short round first when JIT warm-up should not count.
+ */
+public final class LoadDriver {
+
+    public interface Checkout {
+        /** One simulated checkout; index is 0..checkouts-1. Throw to fail it. */
+        void run(int index) throws Exception;
+    }
+
+    public static final class Report {
+        public final int checkouts;
+        public final int failures;
+        public final long wallNanos;
+        /** The first few failures, as "index: exception". */
+        public final List<String> errors;
+        // successful checkouts only, sorted
+        private final long[] latencyNanos;
+
+        Report(int checkouts, int failures, long wallNanos, List<String> errors, long[] latencyNanos) {
+            this.checkouts = checkouts;
+            this.failures = failures;
+            this.wallNanos = wallNanos;
+            this.errors = errors;
+            this.latencyNanos = latencyNanos;
+        }
+
+        /** Completed checkouts (failed ones included) per second of wall time. */
+        public double throughputPerSecond() {
+            return wallNanos > 0 ? checkouts * 1e9 / wallNanos : 0;
+        }
+
+        /** Latency percentile in ms, p in 0..100, nearest-rank; 0 when nothing succeeded. */
+        public double percentileMillis(double p) {
+            if (latencyNanos.length == 0) return 0;
+            final int rank = (int) Math.ceil(p / 100.0 * latencyNanos.length);
+            return latencyNanos[Math.max(0, Math.min(latencyNanos.length - 1, rank - 1))] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d checkouts, %d failed, %.1f/s, p50 %.1fms p90 %.1fms p99 %.1fms max %.1fms",
+                    checkouts, failures, throughputPerSecond(), percentileMillis(50), percentileMillis(90),
+                    percentileMillis(99), percentileMillis(100));
+        }
+    }
+
+    private static final int MAX_ERRORS = 10;
+
+    private LoadDriver() {}
+
+    public static Report run(int checkouts, int concurrency, Checkout checkout) throws InterruptedException {
+        if (checkouts < 0 || concurrency < 1) throw new IllegalArgumentException(checkouts + " / " + concurrency);
+        final long[] latencies = new long[checkouts];
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(concurrency);
+        final CountDownLatch go = new CountDownLatch(1);
+
+        for (int t = 0; t < concurrency; t++) {
+            final Thread worker = new Thread(() -> {
+                try {
+                    go.await();
+                    int i;
+                    while ((i = next.getAndIncrement()) < checkouts) {
+                        final long start = System.nanoTime();
+                        try {
+                            checkout.run(i);
+                            latencies[i] = System.nanoTime() - start;
+                        } catch (Exception | AssertionError e) {
+                            latencies[i] = -1;
+                            failures.incrementAndGet();
+                            if (errors.size() < MAX_ERRORS) errors.add(i + ": " + e);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        final long start = System.nanoTime();
+        go.countDown();
+        done.await();
+        final long wall = System.nanoTime() - start;
+
+        final long[] ok = Arrays.stream(latencies).filter(l -> l >= 0).sorted().toArray();
+        return new Report(checkouts, failures.get(), wall, new ArrayList<>(errors), ok);
+    }
+}
@@ -0,0 +1,555 @@
+package com.gurutva.gurutvapay_sdk.testing;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process stand-in for the GurutvaPay API, for tests and load runs without network access.
+ *
+ *  - initiate-payment-android: one session per Idempotency-Key (per merchantOrderId when the
+ *    header is missing); payment_url points at this server's /pay/&lt;id&gt; page
+ *  - transaction-status-android and transaction-status-batch-android: SUCCESS for initiated
+ *    orders unless changed with {@link #setStatus}, 404 / an error entry for unknown ones
+ *  - transaction-history-android: a synthetic history of {@link Builder#historySize} orders,
+ *    ORD&lt;n-1&gt; (newest) .. ORD0, paged by limit and an offset cursor
+ *  - /pay/&lt;id&gt;: a minimal page that reports success through console.log, as the real one does
+ *  - /echo: the request body back, inflated, for transport tests
+ *
+ * Every API call waits a random {@link Builder#latency} and fails with
+ * {@link Builder#errorCode} at {@link Builder#errorRate}, or as scripted by {@link #failNext};
+ * {@link Builder#responsePadding} grows the JSON responses. Gzip request bodies are accepted
+ * (unless {@link Builder#rejectGzipRequests}), responses are gzipped on request.
+ *
+ *  try (MockGurutvaPayServer server = MockGurutvaPayServer.builder().latency(20, 80).errorRate(0.05).start()) {
+ *      GurutvaPay.prepare(context, "salt", order, server.baseUrl(), ttl);
+ *  }
+ *
+ * Run standalone (e.g. for the sample app on an emulator) with ./gradlew :test-fixtures:run.
+ */
+public final class MockGurutvaPayServer implements Closeable {
+
+    public static final String INITIATE = "initiate-payment-android";
+    public static final String STATUS = "transaction-status-android";
+    public static final String STATUS_BATCH = "transaction-status-batch-android";
+    public static final String HISTORY = "transaction-history-android";
+    public static final String ECHO = "echo";
+
+    // createdAt of ORD0 in the synthetic history; ORD<n> is n ms later
+    public static final long HISTORY_EPOCH_MS = 1_700_000_000_000L;
+
+    private static final Pattern MERCHANT_ORDER_ID = Pattern.compile("\"merchantOrderId\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final Pattern ID_LIST = Pattern.compile("\"merchantOrderIds\"\\s*:\\s*\\[([^\\]]*)\\]");
+    private static final Pattern STRING = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private static final class Session {
+        final String id;
+        final String merchantOrderId;
+
+        Session(String id, String merchantOrderId) {
+            this.id = id;
+            this.merchantOrderId = merchantOrderId;
+        }
+    }
+
+    private final Builder config;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Random random;
+    private final String padding;
+    private final String errorPage;
+
+    private final Map<String, Session> sessionsByKey = new ConcurrentHashMap<>();
+    private final Map<String, Session> sessionsById = new ConcurrentHashMap<>();
+    private final Map<String, String> statuses = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final Set<String> clients = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> errorsByKey = new ConcurrentHashMap<>();
+    private final Queue<int[]> scripted = new ConcurrentLinkedQueue<>();
+    private final List<String> idempotencyKeys = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> requestEncodings = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final AtomicInteger injectedErrors = new AtomicInteger();
+
+    private MockGurutvaPayServer(Builder b) throws IOException {
+        config = b;
+        random = new Random(b.seed);
+        final char[] pad = new char[b.responsePadding];
+        Arrays.fill(pad, 'x');
+        padding = new String(pad);
+        final char[] page = new char[b.errorBodyPadding];
+        Arrays.fill(page, 'x');
+        errorPage = page.length == 0 ? null : "<html><body>" + new String(page) + "</body></html>";
+
+        server = HttpServer.create(new InetSocketAddress(b.host, b.port), 0);
+        final AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(b.threads, r -> {
+            Thread t = new Thread(r, "mock-gurutvapay-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private String host = "127.0.0.1";
+        private int port;
+        private long minLatencyMs, maxLatencyMs;
+        private double errorRate;
+        private int errorCode = 503;
+        private int retryAfterSeconds = -1;
+        private int responsePadding;
+        private int errorBodyPadding;
+        private int maxErrorsPerKey = -1;
+        private boolean rejectGzipRequests;
+        private int historySize = 100;
+        private int threads = 64;
+        private long seed = 42;
+
+        Builder() {}
+
+        /** Interface to bind; "0.0.0.0" to reach the server from an emulator (as 10.0.2.2). */
+        public Builder host(String host) {
+            this.host = host;
+            return this;
+        }
+
+        /** 0 (default) picks a free port. */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /** Each API call waits uniformly between minMs and maxMs before answering. */
+        public Builder latency(long minMs, long maxMs) {
+            if (minMs < 0 || maxMs < minMs) throw new IllegalArgumentException("latency " + minMs + ".." + maxMs);
+            this.minLatencyMs = minMs;
+            this.maxLatencyMs = maxMs;
+            return this;
+        }
+
+        /** Fraction of API calls, 0..1, answered with {@link #errorCode} instead. */
+        public Builder errorRate(double rate) {
+            if (rate < 0 || rate > 1) throw new IllegalArgumentException("errorRate " + rate);
+            this.errorRate = rate;
+            return this;
+        }
+
+        /** Defaults to 503. */
+        public Builder errorCode(int code) {
+            this.errorCode = code;
+            return this;
+        }
+
+        /** Retry-After sent with injected errors; none by default. */
+        public Builder retryAfterSeconds(int seconds) {
+            this.retryAfterSeconds = seconds;
+            return this;
+        }
+
+        /** Extra chars of unused "meta" ahead of the fields the SDK reads, per JSON response. */
+        public Builder responsePadding(int chars) {
+            this.responsePadding = chars;
+            return this;
+        }
+
+        /**
+         * Injected errors are an HTML page of this many chars, sent uncompressed, like a proxy's
+         * error page, instead of a short JSON error.
+         */
+        public Builder errorBodyPadding(int chars) {
+            this.errorBodyPadding = chars;
+            return this;
+        }
+
+        /**
+         * Randomly fail one Idempotency-Key at most n times, so a caller making n + 1 attempts
+         * always gets through; unlimited by default.
+         */
+        public Builder maxErrorsPerKey(int n) {
+            this.maxErrorsPerKey = n;
+            return this;
+        }
+
+        /** Answer gzip-compressed request bodies with 415, like a server without gzip support. */
+        public Builder rejectGzipRequests() {
+            this.rejectGzipRequests = true;
+            return this;
+        }
+
+        /** Orders in the synthetic transaction history; 100 by default. */
+        public Builder historySize(int orders) {
+            this.historySize = orders;
+            return this;
+        }
+
+        /** Handler threads, i.e. how many requests can be waiting out their latency at once. */
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /** Seed for latency and error injection. */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public MockGurutvaPayServer start() throws IOException {
+            return new MockGurutvaPayServer(this);
+        }
+    }
+
+    /** Base URL to pass as envBaseUrl. */
+    public String baseUrl() {
+        return "http://" + config.host + ":" + server.getAddress().getPort();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /** Status reported for merchantOrderId from now on, e.g. "PENDING" or "FAILED". */
+    public void setStatus(String merchantOrderId, String status) {
+        statuses.put(merchantOrderId, status);
+    }
+
+    /**
+     * The next API call fails with code (and Retry-After, unless negative) after its latency;
+     * scripted failures are used up in order, ahead of random ones.
+     */
+    public void failNext(int code, int retryAfterSeconds) {
+        scripted.add(new int[]{code, retryAfterSeconds});
+    }
+
+    /** The Idempotency-Key of every initiate request so far, null when absent, injected errors included. */
+    public List<String> idempotencyKeys() {
+        synchronized (idempotencyKeys) {
+            return new ArrayList<>(idempotencyKeys);
+        }
+    }
+
+    /** Content-Encoding of every API request body so far, "identity" when not compressed. */
+    public List<String> requestEncodings() {
+        synchronized (requestEncodings) {
+            return new ArrayList<>(requestEncodings);
+        }
+    }
+
+    /** Requests received for an endpoint ({@link #INITIATE}, {@link #STATUS}, ...), injected errors included. */
+    public int requests(String endpoint) {
+        final AtomicInteger n = requests.get(endpoint);
+        return n != null ? n.get() : 0;
+    }
+
+    /** Distinct payment sessions created; retries with the same Idempotency-Key do not add one. */
+    public int sessions() {
+        return sessionCount.get();
+    }
+
+    /** Distinct client connections seen (remote address + port); low when keep-alive works. */
+    public int connections() {
+        return clients.size();
+    }
+
+    public int injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            clients.add(ex.getRemoteAddress().toString());
+            final String path = ex.getRequestURI().getPath();
+            final String endpoint = path.substring(path.lastIndexOf('/') + 1);
+            if (path.startsWith("/pay/")) {
+                page(ex, endpoint);
+                return;
+            }
+            requests.computeIfAbsent(endpoint, k -> new AtomicInteger()).incrementAndGet();
+            final String encoding = ex.getRequestHeaders().getFirst("Content-Encoding");
+            requestEncodings.add(encoding != null ? encoding : "identity");
+            if (config.rejectGzipRequests && "gzip".equalsIgnoreCase(encoding)) {
+                ex.getRequestBody().close();
+                json(ex, 415, "{\"error\":\"unsupported Content-Encoding\"}");
+                return;
+            }
+            final byte[] body = readBody(ex);
+            final String key = INITIATE.equals(endpoint) ? ex.getRequestHeaders().getFirst("Idempotency-Key") : null;
+            if (INITIATE.equals(endpoint)) idempotencyKeys.add(key);
+            if (!simulateLatencyAndErrors(ex, key)) return;
+            if (ECHO.equals(endpoint)) {
+                send(ex, 200, "application/octet-stream", body, true);
+                return;
+            }
+            if (isEmpty(ex.getRequestHeaders().getFirst("Live-Salt-Key1")) || isEmpty(ex.getRequestHeaders().getFirst("appId"))) {
+                json(ex, 401, "{\"error\":\"missing Live-Salt-Key1 / appId\"}");
+                return;
+            }
+            switch (endpoint) {
+                case INITIATE:
+                    initiate(ex, new String(body, StandardCharsets.UTF_8));
+                    break;
+                case STATUS:
+                    status(ex, query(ex, "merchantOrderId"));
+                    break;
+                case STATUS_BATCH:
+                    statusBatch(ex, new String(body, StandardCharsets.UTF_8));
+                    break;
+                case HISTORY:
+                    history(ex, query(ex, "limit"), query(ex, "cursor"));
+                    break;
+                default:
+                    json(ex, 404, "{\"error\":\"no such endpoint\"}");
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    // false when an error was injected and sent; key is the Idempotency-Key of an initiate call
+    private boolean simulateLatencyAndErrors(HttpExchange ex, String key) throws IOException {
+        final long delay;
+        boolean fail;
+        synchronized (random) {
+            delay = config.minLatencyMs + (long) (random.nextDouble() * (config.maxLatencyMs - config.minLatencyMs));
+            fail = random.nextDouble() < config.errorRate;
+        }
+        if (fail && key != null && config.maxErrorsPerKey >= 0) {
+            fail = errorsByKey.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() <= config.maxErrorsPerKey;
+        }
+        final int[] next = scripted.poll();
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (next == null && !fail) return true;
+        injectedErrors.incrementAndGet();
+        final int code = next != null ? next[0] : config.errorCode;
+        final int retryAfter = next != null ? next[1] : config.retryAfterSeconds;
+        if (retryAfter >= 0) ex.getResponseHeaders().set("Retry-After", String.valueOf(retryAfter));
+        if (errorPage != null) {
+            send(ex, code, "text/html; charset=utf-8", errorPage.getBytes(StandardCharsets.UTF_8), false);
+        } else {
+            json(ex, code, "{\"error\":\"injected failure\"}");
+        }
+        return false;
+    }
+
+    private void initiate(HttpExchange ex, String order) throws IOException {
+        final Matcher m = MERCHANT_ORDER_ID.matcher(order);
+        if (!m.find()) {
+            json(ex, 400, "{\"error\":\"merchantOrderId is required\"}");
+            return;
+        }
+        final String mo = m.group(1);
+        final String header = ex.getRequestHeaders().getFirst("Idempotency-Key");
+        final String key = !isEmpty(header) ? header : "mo:" + mo;
+        final Session s = sessionsByKey.computeIfAbsent(key, k -> {
+            final Session created = new Session("s" + sessionCount.incrementAndGet(), mo);
+            sessionsById.put(created.id, created);
+            statuses.putIfAbsent(mo, "SUCCESS");
+            return created;
+        });
+        final String host = ex.getRequestHeaders().getFirst("Host");
+        final String pageBase = host != null ? "http://" + host : baseUrl();
+        json(ex, 200, "{" + meta() + "\"status\":\"created\",\"merchantOrderId\":\"" + s.merchantOrderId + "\","
+                + "\"payment_url\":\"" + pageBase + "/pay/" + s.id + "\"}");
+    }
+
+    private void status(HttpExchange ex, String mo) throws IOException {
+        final String status = mo != null ? statuses.get(mo) : null;
+        if (status == null) {
+            json(ex, 404, "{\"error\":\"unknown merchantOrderId\"}");
+            return;
+        }
+        json(ex, 200, statusJson(mo, status));
+    }
+
+    private void statusBatch(HttpExchange ex, String req) throws IOException {
+        final Matcher list = ID_LIST.matcher(req);
+        if (!list.find()) {
+            json(ex, 400, "{\"error\":\"merchantOrderIds is required\"}");
+            return;
+        }
+        final List<String> items = new ArrayList<>();
+        final Matcher id = STRING.matcher(list.group(1));
+        while (id.find()) {
+            final String mo = id.group(1);
+            final String status = statuses.get(mo);
+            items.add(status != null ? statusJson(mo, status)
+                    : "{\"merchantOrderId\":\"" + mo + "\",\"error\":\"unknown merchantOrderId\"}");
+        }
+        json(ex, 200, "{" + meta() + "\"results\":[" + String.join(",", items) + "]}");
+    }
+
+    private String statusJson(String mo, String status) {
+        final int n = Math.abs(mo.hashCode());
+        return "{" + meta() + "\"merchantOrderId\":\"" + mo + "\",\"status\":\"" + status + "\","
+                + "\"orderId\":\"OD" + n + "\",\"transactionId\":\"T" + n + "\"}";
+    }
+
+    private void history(HttpExchange ex, String limitParam, String cursor) throws IOException {
+        final int limit, offset;
+        try {
+            limit = limitParam != null ? Integer.parseInt(limitParam) : 50;
+            offset = cursor != null ? Integer.parseInt(cursor) : 0;
+        } catch (NumberFormatException e) {
+            json(ex, 400, "{\"error\":\"bad limit or cursor\"}");
+            return;
+        }
+        if (limit <= 0 || offset < 0) {
+            json(ex, 400, "{\"error\":\"bad limit or cursor\"}");
+            return;
+        }
+        final int size = config.historySize;
+        final int end = (int) Math.min(size, (long) offset + limit);
+        final StringBuilder sb = new StringBuilder("{").append(meta()).append("\"items\":[");
+        for (int i = offset; i < end; i++) {
+            final int n = size - 1 - i;
+            final String mo = "ORD" + n;
+            if (i > offset) sb.append(',');
+            sb.append("{\"merchantOrderId\":\"").append(mo).append("\",\"amount\":").append(n)
+                    .append(",\"status\":\"").append(statuses.getOrDefault(mo, "SUCCESS"))
+                    .append("\",\"createdAt\":").append(HISTORY_EPOCH_MS + n).append('}');
+        }
+        sb.append("],\"nextCursor\":").append(end < size ? "\"" + end + "\"" : "null").append('}');
+        json(ex, 200, sb.toString());
+    }
+
+    private void page(HttpExchange ex, String sessionId) throws IOException {
+        final Session s = sessionsById.get(sessionId);
+        if (s == null) {
+            send(ex, 404, "text/plain", "unknown session");
+            return;
+        }
+        final String result = statusJson(s.merchantOrderId, statuses.getOrDefault(s.merchantOrderId, "SUCCESS"));
+        send(ex, 200, "text/html; charset=utf-8", "<!doctype html><html><body><h3>Mock GurutvaPay checkout</h3>"
+                + "<script>setTimeout(function(){console.log(JSON.stringify(" + result + "));}, 500);</script>"
+                + "</body></html>");
+    }
+
+    private String meta() {
+        return padding.isEmpty() ? "" : "\"meta\":\"" + padding + "\",";
+    }
+
+    private void json(HttpExchange ex, int code, String body) throws IOException {
+        send(ex, code, "application/json", body);
+    }
+
+    private static void send(HttpExchange ex, int code, String contentType, String text) throws IOException {
+        send(ex, code, contentType, text.getBytes(StandardCharsets.UTF_8), true);
+    }
+
+    // compress: gzip when the client accepts it
+    private static void send(HttpExchange ex, int code, String contentType, byte[] body, boolean compress)
+            throws IOException {
+        final String accept = ex.getRequestHeaders().getFirst("Accept-Encoding");
+        if (compress && accept != null && accept.contains("gzip")) {
+            final ByteArrayOutputStream z = new ByteArrayOutputStream();
+            try (GZIPOutputStream gz = new GZIPOutputStream(z)) {
+                gz.write(body);
+            }
+            body = z.toByteArray();
+            ex.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        ex.getResponseHeaders().set("Content-Type", contentType);
+        ex.sendResponseHeaders(code, body.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private static byte[] readBody(HttpExchange ex) throws IOException {
+        InputStream in = ex.getRequestBody();
+        if ("gzip".equalsIgnoreCase(ex.getRequestHeaders().getFirst("Content-Encoding"))) in = new GZIPInputStream(in);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buf = new byte[4096];
+        int n;
+        while ((n = in.read(buf)) != -1) out.write(buf, 0, n);
+        return out.toByteArray();
+    }
+
+    private static String query(HttpExchange ex, String name) throws IOException {
+        final String q = ex.getRequestURI().getRawQuery();
+        if (q == null) return null;
+        for (String pair : q.split("&")) {
+            final int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) return URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+        }
+        return null;
+    }
+
+    private static boolean isEmpty(String s) {
+        return s == null || s.isEmpty();
+    }
+
+    /**
+     * Standalone server: --host 0.0.0.0 --port 8080 --latency 50..200 --error-rate 0.05
+     * --error-code 503 --retry-after 1 --padding 2048 --history 500
+     */
+    public static void main(String[] args) throws Exception {
+        final Builder b = builder().host("0.0.0.0").port(8080);
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            final String v = args[i + 1];
+            switch (args[i]) {
+                case "--host": b.host(v); break;
+                case "--port": b.port(Integer.parseInt(v)); break;
+                case "--latency": {
+                    final String[] r = v.split("\\.\\.");
+                    b.latency(Long.parseLong(r[0]), Long.parseLong(r[r.length - 1]));
+                    break;
+                }
+                case "--error-rate": b.errorRate(Double.parseDouble(v)); break;
+                case "--error-code": b.errorCode(Integer.parseInt(v)); break;
+                case "--retry-after": b.retryAfterSeconds(Integer.parseInt(v)); break;
+                case "--padding": b.responsePadding(Integer.parseInt(v)); break;
+                case "--history": b.historySize(Integer.parseInt(v)); break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        final MockGurutvaPayServer server = b.start();
+        System.out.println("mock GurutvaPay API on " + server.baseUrl()
+                + " (emulator: http://10.0.2.2:" + server.port() + ")");
+        Thread.currentThread().join();
+    }
+}